@@ -0,0 +1,34 @@
+package com.community.tools.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+  @Value("${github.fetch.threads}")
+  private int gitHubFetchThreads;
+
+  /**
+   * Executor for parallel requests to GitHub API. When all threads are busy and the queue
+   * is full, the caller runs the request itself, so the number of requests in flight stays
+   * bounded.
+   *
+   * @return executor
+   */
+  @Bean
+  public Executor gitHubFetchExecutor() {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(gitHubFetchThreads);
+    executor.setMaxPoolSize(gitHubFetchThreads);
+    executor.setQueueCapacity(gitHubFetchThreads * 4);
+    executor.setThreadNamePrefix("github-fetch-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+}
@@ -0,0 +1,87 @@
+package com.community.tools.controller;
+
+import com.community.tools.service.ScoreLedgerService;
+import com.community.tools.service.github.GitHubHookReplayService;
+import com.community.tools.service.github.GitHubHookService;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Maintenance operations. Requests are authorized by the "X-Admin-Token" header, the admin
+ * token is not shared with the GitHub webhook.
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+  @Value("${admin.token}")
+  private String adminToken;
+  @Autowired
+  private ScoreLedgerService scoreLedgerService;
+  @Autowired
+  private GitHubHookReplayService gitHubHookReplayService;
+
+  /**
+   * Replay stored webhook events of the interval through the given hook handlers. Only
+   * idempotent handlers can be replayed.
+   *
+   * @param startDate start date in format 'yyyy-MM-dd', inclusive
+   * @param endDate   end date in format 'yyyy-MM-dd', exclusive
+   * @param handlers  names of hook handlers
+   * @param token     "X-Admin-Token" header
+   * @return number of replayed events
+   * @throws ParseException error while parsing Date from String
+   * @see GitHubHookService#REPLAYABLE_HANDLERS
+   */
+  @PostMapping("/hooks/replay")
+  public ResponseEntity<Integer> replay(@RequestParam(name = "start") String startDate,
+                                        @RequestParam(name = "end") String endDate,
+                                        @RequestParam(name = "handlers") Set<String> handlers,
+                                        @RequestHeader("X-Admin-Token") String token)
+      throws ParseException {
+    if (!isAdminToken(token)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    if (!GitHubHookService.REPLAYABLE_HANDLERS.containsAll(handlers)) {
+      return ResponseEntity.badRequest().build();
+    }
+    DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+    Date start = format.parse(startDate);
+    Date end = format.parse(endDate);
+    return ResponseEntity.ok(gitHubHookReplayService.replay(start, end, handlers));
+  }
+
+  /**
+   * Recompute karma and points of all users from the score ledger, for example after
+   * replaying hooks or fixing the ledger by hand.
+   *
+   * @param token "X-Admin-Token" header
+   * @return number of updated users
+   */
+  @PostMapping("/scores/recompute")
+  public ResponseEntity<Integer> recomputeScores(@RequestHeader("X-Admin-Token") String token) {
+    if (!isAdminToken(token)) {
+      return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+    return ResponseEntity.ok(scoreLedgerService.recompute());
+  }
+
+  private boolean isAdminToken(String token) {
+    return !adminToken.isEmpty() && MessageDigest.isEqual(
+        adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+  }
+}
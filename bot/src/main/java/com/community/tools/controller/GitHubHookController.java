@@ -1,12 +1,16 @@
 package com.community.tools.controller;
 
+import com.community.tools.model.GitHubHookEvent;
 import com.community.tools.service.github.GitHookDataService;
-import com.community.tools.service.github.GitHubHookService;
+import com.community.tools.service.github.GitHubDeliveryService;
+import com.community.tools.service.github.GitHubHookEventParser;
+import com.community.tools.service.github.GitHubHookPipeline;
+import com.community.tools.util.GithubAuthChecker;
 
-import java.io.IOException;
+import java.security.GeneralSecurityException;
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletResponse;
 
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -22,32 +26,72 @@ public class GitHubHookController {
   @Value("${github.secret.token}")
   private String secret;
   @Autowired
-  private GitHubHookService gitHubHookService;
+  private GitHubHookPipeline gitHubHookPipeline;
   @Autowired
   private GitHookDataService gitHookDataService;
+  @Autowired
+  private GitHubHookEventParser gitHubHookEventParser;
+  @Autowired
+  private GitHubDeliveryService gitHubDeliveryService;
+
+  private GithubAuthChecker authChecker;
 
   /**
-   * Method receive webhook data from GitHub.
+   * Create checker of webhook signatures with the GitHub webhook secret.
    *
-   * @param body   String
-   * @param header "X-Hub-Signature" header
-   * @param resp   HttpServletResponse
-   * @throws IOException IOException
+   * @throws GeneralSecurityException when HMAC is not available
+   */
+  @PostConstruct
+  public void initAuthChecker() throws GeneralSecurityException {
+    authChecker = new GithubAuthChecker(secret);
+  }
+
+  /**
+   * Method receive webhook data from GitHub. The signature is verified over the received
+   * bytes, repeated deliveries are skipped, the data is saved and the event is queued for
+   * handling, so GitHub gets the response without waiting for the handlers. When the queue
+   * is full, the response is 503, so the delivery is marked as failed and can be redelivered.
+   * A delivery, which is not queued for any reason, is forgotten, so its redelivery is not
+   * skipped as repeated.
+   *
+   * @param body            payload
+   * @param signature       "X-Hub-Signature" header
+   * @param signatureSha256 "X-Hub-Signature-256" header
+   * @param event           "X-GitHub-Event" header
+   * @param deliveryId      "X-GitHub-Delivery" header
+   * @param resp            HttpServletResponse
    */
   @PostMapping
-  public void getHookData(@RequestBody String body,
-                          @RequestHeader("X-Hub-Signature") String header,
+  public void getHookData(@RequestBody byte[] body,
+                          @RequestHeader(name = "X-Hub-Signature", required = false)
+                              String signature,
+                          @RequestHeader(name = "X-Hub-Signature-256", required = false)
+                              String signatureSha256,
+                          @RequestHeader("X-GitHub-Event") String event,
+                          @RequestHeader(name = "X-GitHub-Delivery", required = false)
+                              String deliveryId,
                           HttpServletResponse resp) {
-
-    JSONObject json = new JSONObject(body);
-    gitHookDataService.saveDataIntoDB(json);
-    boolean actionExist = false;
-    if (json.has("action")) {
-      actionExist = true;
+    if (!authChecker.checkSignature(
+        signatureSha256 != null ? signatureSha256 : signature, body)) {
+      resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+      return;
     }
-    if (actionExist) {
-      gitHubHookService.doActionsAfterReceiveHook(json);
+    if (deliveryId != null && !gitHubDeliveryService.markReceived(deliveryId)) {
+      return;
+    }
+    boolean accepted = false;
+    try {
+      gitHookDataService.saveDataIntoDB(event, body);
+      GitHubHookEvent hookEvent = gitHubHookEventParser.parse(event, body);
+      if (hookEvent.getAction() != null && !gitHubHookPipeline.submit(hookEvent)) {
+        resp.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        return;
+      }
+      accepted = true;
+    } finally {
+      if (!accepted && deliveryId != null) {
+        gitHubDeliveryService.forget(deliveryId);
+      }
     }
   }
 }
-
@@ -0,0 +1,79 @@
+package com.community.tools.controller;
+
+import com.community.tools.service.LeaderboardImageService;
+import com.community.tools.service.LeaderboardImageService.CachedImage;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+public class LeaderboardImageController {
+
+  private static final String FINAL_CACHE_CONTROL = "public, max-age=31536000, immutable";
+  private static final long CURRENT_MAX_AGE_MINUTES = 5;
+
+  @Autowired
+  private LeaderboardImageService leaderboardImageService;
+
+  /**
+   * Get image of the top of the leaderboard.
+   *
+   * @param date       day in format 'yyyy-MM-dd'
+   * @param webRequest request for the ETag check
+   * @return png image, not found for days without a snapshot
+   */
+  @GetMapping("/leaderboard/img/{date}")
+  public ResponseEntity<byte[]> getLeaderboardImage(
+      @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+      WebRequest webRequest) {
+    return toResponse(date, () -> leaderboardImageService.getLeaderboardImage(date),
+        webRequest);
+  }
+
+  /**
+   * Get image of the task statuses. "/task-statusimg/{date}" is kept for the links, which are
+   * already published.
+   *
+   * @param date       day in format 'yyyy-MM-dd'
+   * @param webRequest request for the ETag check
+   * @return png image, not found for days without a snapshot
+   */
+  @GetMapping({"/task-status/img/{date}", "/task-statusimg/{date}"})
+  public ResponseEntity<byte[]> getTaskStatusImage(
+      @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+      WebRequest webRequest) {
+    return toResponse(date, () -> leaderboardImageService.getTaskStatusImage(date),
+        webRequest);
+  }
+
+  private ResponseEntity<byte[]> toResponse(LocalDate date, Supplier<CachedImage> images,
+      WebRequest webRequest) {
+    if (!leaderboardImageService.hasImage(date)) {
+      return ResponseEntity.notFound().build();
+    }
+    CachedImage image = images.get();
+    if (webRequest.checkNotModified(image.getEtag())) {
+      return null;
+    }
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.IMAGE_PNG)
+        .eTag(image.getEtag());
+    if (leaderboardImageService.isFinal(date) && image.isHistorical()) {
+      response.header(HttpHeaders.CACHE_CONTROL, FINAL_CACHE_CONTROL);
+    } else {
+      response.cacheControl(CacheControl.maxAge(CURRENT_MAX_AGE_MINUTES, TimeUnit.MINUTES)
+          .cachePublic());
+    }
+    return response.body(image.getPng());
+  }
+}
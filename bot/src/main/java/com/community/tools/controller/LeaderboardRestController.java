@@ -0,0 +1,36 @@
+package com.community.tools.controller;
+
+import com.community.tools.dto.LeaderboardEntryDto;
+import com.community.tools.service.LeaderboardSnapshotService;
+import java.time.LocalDate;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardRestController {
+
+  @Autowired
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  /**
+   * Get the leaderboard snapshot of the day.
+   *
+   * @param date      day in format 'yyyy-MM-dd', the current day if not set
+   * @param userLimit max number of users
+   * @return users by rank
+   */
+  @GetMapping
+  public List<LeaderboardEntryDto> getLeaderboard(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate date,
+      @RequestParam(required = false) Integer userLimit) {
+    return leaderboardSnapshotService.getSnapshot(date == null ? LocalDate.now() : date,
+        userLimit);
+  }
+}
@@ -1,20 +1,23 @@
 package com.community.tools.controller;
 
+import com.community.tools.dto.TaskStatusMatrixDto;
 import com.community.tools.model.User;
 import com.community.tools.service.LeaderBoardService;
+import com.community.tools.service.TaskStatusMatrixService;
 import com.community.tools.service.TaskStatusService;
-import java.util.ArrayList;
-import java.util.Comparator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
@@ -29,46 +32,71 @@ public class UsersRestController {
   @Autowired
   LeaderBoardService leaderBoardService;
 
+  @Autowired
+  private TaskStatusMatrixService taskStatusMatrixService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
   /**
-   * Request controller for handing api requests.
+   * Request controller for handing api requests. Users are returned best first, a page at a
+   * time, and the "X-Next-Cursor" header is set, when there may be more users.
    *
    * @param userLimit query param to limit showed users
    * @param daysFetch query param to limit users by recent activity
    * @param sort      query param to sort by field
+   * @param after     query param with "X-Next-Cursor" of the previous page
    * @return returns json with users from db according to query params
    */
   @GetMapping
   @Transactional
-  public List<User> getUsers(@RequestParam(required = false) Integer userLimit,
+  public ResponseEntity<List<User>> getUsers(@RequestParam(required = false) Integer userLimit,
       @RequestParam(required = false) Integer daysFetch,
-      @RequestParam(required = false) String sort) {
-
-    Comparator<User> comparator;
-
-    if (Objects.equals(sort, "points")) {
-      comparator = Comparator.comparing(User::getTotalPoints).reversed();
-    } else {
-      comparator = Comparator.comparing(User::getCompletedTasks).reversed();
-    }
-
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String after) {
     List<User> users;
-
-    if (daysFetch != null) {
-      users = leaderBoardService.getActiveUsersFromPeriod(daysFetch);
-      users = taskStatusService.addPlatformNameToSelectedUsers(users);
-    } else {
-      users = taskStatusService.addPlatformNameToUser(1, "gitName", "asc");
+    try {
+      users = leaderBoardService.getUsersPage(userLimit, daysFetch, sort, after);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
     }
+    users = taskStatusService.addPlatformNameToSelectedUsers(users);
 
-    List<User> newUsers = new ArrayList<>(users);
-    newUsers.sort(comparator);
-
-    if (userLimit != null) {
-      return newUsers.subList(0, userLimit);
-    } else {
-      return newUsers;
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (userLimit != null && !users.isEmpty() && users.size() == userLimit) {
+      response.header("X-Next-Cursor",
+          leaderBoardService.getCursor(users.get(users.size() - 1), sort));
     }
+    return response.body(users);
   }
 
-
-}
\ No newline at end of file
+  /**
+   * Task statuses of users for the task status dashboard. The response has an ETag, so
+   * the dashboard gets 304 without a body, when nothing has changed. The ETag is checked
+   * before the matrix is built.
+   *
+   * @param userLimit  query param to limit showed users
+   * @param daysFetch  query param to limit users by recent activity
+   * @param sort       query param to sort by field
+   * @param webRequest request with "If-None-Match" header
+   * @return users x tasks matrix of statuses
+   * @throws JsonProcessingException JsonProcessingException
+   */
+  @GetMapping("/task-status")
+  public ResponseEntity<byte[]> getTaskStatusMatrix(
+      @RequestParam(required = false) Integer userLimit,
+      @RequestParam(required = false) Integer daysFetch,
+      @RequestParam(required = false) String sort,
+      WebRequest webRequest) throws JsonProcessingException {
+    String etag = taskStatusMatrixService.getEtag(userLimit, daysFetch, sort);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    TaskStatusMatrixDto matrix =
+        taskStatusMatrixService.getCachedMatrix(userLimit, daysFetch, sort);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(etag)
+        .body(objectMapper.writeValueAsBytes(matrix));
+  }
+}
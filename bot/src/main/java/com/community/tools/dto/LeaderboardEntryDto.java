@@ -0,0 +1,23 @@
+package com.community.tools.dto;
+
+import lombok.Data;
+
+@Data
+public class LeaderboardEntryDto {
+
+  private int rank;
+
+  private String platformName;
+
+  private String gitName;
+
+  private int totalPoints;
+
+  private int karma;
+
+  private int pointByTask;
+
+  private int completedTasks;
+
+  private boolean active;
+}
@@ -0,0 +1,32 @@
+package com.community.tools.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Task statuses of users as a matrix. Each user has one status code per task, in the order of
+ * {@code tasks}. A code is an index in {@code statuses}, -1 if the user has no status for the
+ * task.
+ */
+@Data
+public class TaskStatusMatrixDto {
+
+  private List<String> tasks = new ArrayList<>();
+
+  private List<String> statuses = new ArrayList<>();
+
+  private List<UserRow> users = new ArrayList<>();
+
+  @Data
+  public static class UserRow {
+
+    private String platformName;
+
+    private String gitName;
+
+    private Integer completedTasks;
+
+    private int[] taskStatuses;
+  }
+}
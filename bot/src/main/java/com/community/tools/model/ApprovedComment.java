@@ -0,0 +1,31 @@
+package com.community.tools.model;
+
+import java.util.Date;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Comment "approved" on a pull request, recorded from GitHub webhooks. The reactions to these
+ * comments are counted in karma, when the pull request is labeled done.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "approved_comment")
+public class ApprovedComment {
+
+  @Id
+  private Long commentId;
+  private Integer pullNumber;
+  private String author;
+  private Date createdAt;
+  /**
+   * Path of the comment resources in the repository, "issues/comments" or "pulls/comments".
+   */
+  private String resourcePath;
+}
@@ -0,0 +1,31 @@
+package com.community.tools.model;
+
+import java.util.Date;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "github_event")
+public class GitHubEvent {
+
+  @Id
+  private String eventKey;
+  private Date createdAt;
+  private String actorLogin;
+  @Enumerated(EnumType.STRING)
+  private Event type;
+  private Integer pullNumber;
+
+  public EventData toEventData() {
+    return new EventData(createdAt, actorLogin, type);
+  }
+}
@@ -0,0 +1,40 @@
+package com.community.tools.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Fields of GitHub webhook payload, which are used by the hook handlers. Pull request fields
+ * are taken from the issue for issue comments.
+ *
+ * @see com.community.tools.service.github.GitHubHookEventParser
+ */
+@Data
+public class GitHubHookEvent {
+
+  private String type;
+  private String action;
+  private String repository;
+  private String senderLogin;
+
+  private Integer pullNumber;
+  private String pullAuthor;
+  private String pullTitle;
+  private String pullUrl;
+  private String pullCreatedAt;
+  private String pullClosedAt;
+  private List<String> labels = new ArrayList<>();
+  private String labelName;
+
+  private Long commentId;
+  private String commentAuthor;
+  private String commentBody;
+  private String commentCreatedAt;
+  private String reviewAuthor;
+  private String reviewBody;
+
+  private String checkRunConclusion;
+  private String checkRunUrl;
+  private String checkRunBranch;
+}
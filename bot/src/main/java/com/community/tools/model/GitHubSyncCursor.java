@@ -0,0 +1,25 @@
+package com.community.tools.model;
+
+import java.util.Date;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Position of a synchronization with GitHub. It is written only by the synchronization, so
+ * rows saved from webhooks do not move it.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "github_sync_cursor")
+public class GitHubSyncCursor {
+
+  @Id
+  private String name;
+  private Date syncedAt;
+}
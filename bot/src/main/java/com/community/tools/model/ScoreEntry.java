@@ -0,0 +1,35 @@
+package com.community.tools.model;
+
+import java.util.Date;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change of karma or points of a user. Entries are only appended, the karma and points
+ * columns of {@link User} are their sums. The source key identifies what caused the change,
+ * like a reaction or a labeled pull request, there is at most one entry per source key.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "score_ledger")
+public class ScoreEntry {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  private String gitName;
+  @Enumerated(EnumType.STRING)
+  private ScoreType type;
+  private Integer amount;
+  private String reason;
+  private String sourceKey;
+  private Date createdAt;
+}
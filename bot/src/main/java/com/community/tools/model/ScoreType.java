@@ -0,0 +1,6 @@
+package com.community.tools.model;
+
+public enum ScoreType {
+  KARMA,
+  POINTS
+}
@@ -1,7 +1,9 @@
 package com.community.tools.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.Date;
 import java.util.List;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
@@ -9,10 +11,12 @@ import javax.persistence.Table;
 import javax.persistence.Transient;
 
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 @Data
 @Entity
+@DynamicUpdate
 @Table(name = "state_entity")
 public class User {
 
@@ -21,7 +25,14 @@ public class User {
   private String gitName;
   @JsonIgnore
   private byte[] stateMachine;
+  /**
+   * Karma and points are changed only through the score ledger.
+   *
+   * @see com.community.tools.service.ScoreLedgerService
+   */
+  @Column(updatable = false)
   private Integer karma = 0;
+  @Column(updatable = false)
   private Integer pointByTask = 0;
   private String firstAnswerAboutRules;
   private String secondAnswerAboutRules;
@@ -30,8 +41,16 @@ public class User {
   @Transient
   private String platformName;
 
+  /**
+   * Number of tasks in done status, changed only with the task statuses.
+   *
+   * @see com.community.tools.service.TaskStatusService
+   */
+  @Column(updatable = false)
   private Integer completedTasks;
 
+  private Date lastActivityAt;
+
   @OneToMany(mappedBy = "user")
   private List<TaskStatus> taskStatuses;
 
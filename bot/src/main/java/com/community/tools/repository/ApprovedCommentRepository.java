@@ -0,0 +1,12 @@
+package com.community.tools.repository;
+
+import com.community.tools.model.ApprovedComment;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ApprovedCommentRepository extends JpaRepository<ApprovedComment, Long> {
+
+  List<ApprovedComment> findAllByPullNumber(Integer pullNumber);
+}
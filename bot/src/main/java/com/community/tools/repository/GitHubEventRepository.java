@@ -0,0 +1,14 @@
+package com.community.tools.repository;
+
+import com.community.tools.model.GitHubEvent;
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GitHubEventRepository extends JpaRepository<GitHubEvent, String> {
+
+  List<GitHubEvent> findAllByCreatedAtAfterAndCreatedAtBeforeOrderByCreatedAtAscEventKeyAsc(
+      Date startDate, Date endDate);
+}
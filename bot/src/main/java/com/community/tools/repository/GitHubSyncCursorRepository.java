@@ -0,0 +1,10 @@
+package com.community.tools.repository;
+
+import com.community.tools.model.GitHubSyncCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GitHubSyncCursorRepository extends JpaRepository<GitHubSyncCursor, String> {
+
+}
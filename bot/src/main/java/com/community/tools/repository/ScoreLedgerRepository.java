@@ -0,0 +1,27 @@
+package com.community.tools.repository;
+
+import com.community.tools.model.ScoreEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScoreLedgerRepository extends JpaRepository<ScoreEntry, Long> {
+
+  /**
+   * Append an entry for a known user, unless there is already an entry with the source key.
+   *
+   * @return 1 if the entry was appended
+   */
+  @Modifying
+  @Query(value = "INSERT INTO public.score_ledger"
+      + " (git_name, type, amount, reason, source_key, created_at)"
+      + " SELECT s.git_name, :type, :amount, :reason, :sourceKey, now()"
+      + " FROM public.state_entity s WHERE s.git_name = :gitName LIMIT 1"
+      + " ON CONFLICT (type, source_key) DO NOTHING", nativeQuery = true)
+  int appendOnce(@Param("gitName") String gitName, @Param("type") String type,
+      @Param("amount") int amount, @Param("reason") String reason,
+      @Param("sourceKey") String sourceKey);
+}
@@ -2,6 +2,7 @@ package com.community.tools.repository;
 
 import com.community.tools.model.TaskStatus;
 import com.community.tools.model.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,4 +14,8 @@ public interface TaskStatusRepository extends JpaRepository<TaskStatus, Long> {
   Optional<TaskStatus> findTaskStatusByUserAndTaskName(User user, String taskName);
 
   List<TaskStatus> findAllByUser(User user);
+
+  List<TaskStatus> findAllByUserIn(Collection<User> users);
+
+  long countByUserAndTaskStatus(User user, String taskStatus);
 }
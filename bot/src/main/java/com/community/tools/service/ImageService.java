@@ -1,18 +1,25 @@
 package com.community.tools.service;
 
+import com.community.tools.dto.LeaderboardEntryDto;
+import com.community.tools.dto.TaskStatusMatrixDto;
+import com.community.tools.dto.TaskStatusMatrixDto.UserRow;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
 import javax.imageio.ImageIO;
-import javax.servlet.http.HttpServletRequest;
 import javax.swing.JEditorPane;
 import lombok.SneakyThrows;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
+@Service
 public class ImageService {
+
+  private static final String TABLE_STYLE = "<html><body style='font-family: sans-serif'>";
+
   /**
    * This method put html code into JEditorPane and print image.
    *
@@ -31,6 +38,7 @@ public class ImageService {
     jep.setSize(width, height);
     jep.setBackground(Color.WHITE);
     jep.print(graphics);
+    graphics.dispose();
 
     ByteArrayOutputStream bos = new ByteArrayOutputStream();
     ImageIO.write(image, "png", bos);
@@ -39,26 +47,65 @@ public class ImageService {
   }
 
   /**
-   * Get current base url.
+   * Get html table of the leaderboard.
    *
-   * @return base url
+   * @param date    day of the leaderboard
+   * @param entries users by rank
+   * @return html code
    */
-  public String getCurrentBaseUrl() {
-    ServletRequestAttributes sra = (ServletRequestAttributes) RequestContextHolder
-        .getRequestAttributes();
-    HttpServletRequest req = sra.getRequest();
-    return req.getScheme() + "://" + req.getServerName() + ":" + req.getServerPort()
-        + req.getContextPath();
+  public String getLeaderboardTemplate(LocalDate date, List<LeaderboardEntryDto> entries) {
+    StringBuilder html = new StringBuilder(TABLE_STYLE)
+        .append("<h2>Leaderboard ").append(date).append("</h2>")
+        .append("<table border='1' cellspacing='0' cellpadding='4' width='100%'><tr>")
+        .append("<th>#</th><th>Name</th><th>GitHub</th><th>Points</th><th>Karma</th>")
+        .append("<th>Points by tasks</th><th>Completed tasks</th></tr>");
+    for (LeaderboardEntryDto entry : entries) {
+      html.append("<tr><td>").append(entry.getRank())
+          .append("</td><td>").append(escape(entry.getPlatformName()))
+          .append("</td><td>").append(escape(entry.getGitName()))
+          .append("</td><td>").append(entry.getTotalPoints())
+          .append("</td><td>").append(entry.getKarma())
+          .append("</td><td>").append(entry.getPointByTask())
+          .append("</td><td>").append(entry.getCompletedTasks())
+          .append("</td></tr>");
+    }
+    return html.append("</table></body></html>").toString();
   }
 
-  public String getLeaderboardTemplate() {
-    return new RestTemplate().getForObject(
-        getCurrentBaseUrl() + "/task-status?userLimit=5", String.class);
+  /**
+   * Get html table of the task statuses.
+   *
+   * @param date   day of the task statuses
+   * @param matrix task statuses of users
+   * @return html code
+   */
+  public String getTaskStatusTemplate(LocalDate date, TaskStatusMatrixDto matrix) {
+    StringBuilder html = new StringBuilder(TABLE_STYLE)
+        .append("<h2>Tasks status ").append(date).append("</h2>")
+        .append("<table border='1' cellspacing='0' cellpadding='2' width='100%'")
+        .append(" style='font-size: 8px'><tr><th>Name</th><th>Done</th>");
+    for (String task : matrix.getTasks()) {
+      html.append("<th>").append(escape(task)).append("</th>");
+    }
+    html.append("</tr>");
+    for (UserRow user : matrix.getUsers()) {
+      html.append("<tr><td>")
+          .append(escape(user.getPlatformName() == null
+              ? user.getGitName() : user.getPlatformName()))
+          .append("</td><td>").append(user.getCompletedTasks() == null
+              ? 0 : user.getCompletedTasks())
+          .append("</td>");
+      for (int status : user.getTaskStatuses()) {
+        html.append("<td>")
+            .append(status < 0 ? "" : escape(matrix.getStatuses().get(status)))
+            .append("</td>");
+      }
+      html.append("</tr>");
+    }
+    return html.append("</table></body></html>").toString();
   }
 
-  public String getTaskStatusTemplate() {
-    return new RestTemplate().getForObject(
-        getCurrentBaseUrl() + "/leaderboard?userLimit=5&daysFetch=180sort=points", String.class);
+  private String escape(String text) {
+    return text == null ? "" : HtmlUtils.htmlEscape(text);
   }
-
 }
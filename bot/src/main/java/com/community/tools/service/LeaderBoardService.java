@@ -2,7 +2,6 @@ package com.community.tools.service;
 
 import com.community.tools.model.ServiceUser;
 import com.community.tools.model.User;
-import com.community.tools.service.github.GitHubService;
 import com.community.tools.util.statemachine.jpa.StateMachineRepository;
 import java.awt.Color;
 import java.awt.Graphics;
@@ -16,6 +15,7 @@ import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -31,9 +31,6 @@ public class LeaderBoardService {
   @Autowired
   private MessageService messageService;
 
-  @Autowired
-  private GitHubService gitHubService;
-
 
   /**
    * This method load users and add Name to the User model.
@@ -54,19 +51,57 @@ public class LeaderBoardService {
   }
 
   /**
-   * This method get active users from period in days and add their to the User model.
+   * Get a page of users, best first, ordered by total points or by completed tasks. Pages
+   * are chained by the cursor of the last user of the previous page, so no page is skipped
+   * or repeated, when scores of other users change.
    *
-   * @param days Period in days.
-   * @return List of Users.
+   * @param limit     max number of users, all users if null
+   * @param daysFetch only users active in this number of days, all users if null
+   * @param sort      "points" to sort by total points, by completed tasks otherwise
+   * @param after     cursor of the last user of the previous page, null for the first page
+   * @return page of users
+   * @throws IllegalArgumentException if the cursor is malformed
    */
-  public List<User> getActiveUsersFromPeriod(int days) {
-    LocalDate tempDate = LocalDate.now().minusDays(days);
-    Date date = Date.from(tempDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
-    List<User> list = addNameToUser();
-    Set<String> userNames = gitHubService.getActiveUsersFromGit(date);
-    return list.stream()
-        .filter(user -> userNames
-            .contains(user.getGitName())).collect(Collectors.toList());
+  public List<User> getUsersPage(Integer limit, Integer daysFetch, String sort, String after) {
+    int score = Integer.MAX_VALUE;
+    String userId = "";
+    if (after != null) {
+      int separator = after.indexOf(':');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Malformed cursor " + after);
+      }
+      score = Integer.parseInt(after.substring(0, separator));
+      userId = after.substring(separator + 1);
+    }
+    int size = limit == null ? Integer.MAX_VALUE : limit;
+    boolean byPoints = Objects.equals(sort, "points");
+    if (daysFetch == null) {
+      return byPoints
+          ? stateMachineRepository.findPageByTotalPoints(score, userId, size)
+          : stateMachineRepository.findPageByCompletedTasks(score, userId, size);
+    }
+    Date since = Date.from(LocalDate.now().minusDays(daysFetch)
+        .atStartOfDay(ZoneId.systemDefault()).toInstant());
+    return byPoints
+        ? stateMachineRepository.findActivePageByTotalPoints(since, score, userId, size)
+        : stateMachineRepository.findActivePageByCompletedTasks(since, score, userId, size);
   }
 
+  /**
+   * Get cursor of the user, which starts the next page after the user.
+   *
+   * @param user user
+   * @param sort sort of the page
+   * @return cursor in format "score:userID"
+   */
+  public String getCursor(User user, String sort) {
+    int score = Objects.equals(sort, "points")
+        ? valueOrZero(user.getKarma()) + valueOrZero(user.getPointByTask())
+        : valueOrZero(user.getCompletedTasks());
+    return score + ":" + user.getUserID();
+  }
+
+  private int valueOrZero(Integer value) {
+    return value == null ? 0 : value;
+  }
 }
@@ -0,0 +1,170 @@
+package com.community.tools.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Cache of the leaderboard and the task status images. Images are keyed by kind and date, an
+ * image of the current day also keeps the snapshot version it was rendered for. The images of
+ * the current day are rendered again in the background after each snapshot rebuild, images of
+ * past days do not change. An image is historical, if it shows the day as it was, that is
+ * always for the leaderboard and only when rendered during the day for the task statuses.
+ */
+@Slf4j
+@Service
+public class LeaderboardImageService {
+
+  static final String LEADERBOARD = "leaderboard";
+  static final String TASK_STATUS = "task-status";
+  private static final int IMAGE_USER_LIMIT = 5;
+
+  @Value("${leaderboard.image.cache.size}")
+  private int cacheSize;
+
+  @Autowired
+  private ImageService imageService;
+  @Autowired
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+  @Autowired
+  private TaskStatusMatrixService taskStatusMatrixService;
+
+  private final Object renderLock = new Object();
+  private Map<String, CachedImage> cache;
+  private ExecutorService renderer;
+
+  @Data
+  public static class CachedImage {
+
+    private final long version;
+    private final boolean historical;
+    private final byte[] png;
+    private final String etag;
+  }
+
+  /**
+   * Create the cache and the render thread. Only the last rebuild has to be rendered, so
+   * rebuilds, which come while one is queued, are dropped.
+   */
+  @PostConstruct
+  public void start() {
+    cache = new LinkedHashMap<String, CachedImage>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedImage> eldest) {
+        return size() > cacheSize;
+      }
+    };
+    renderer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(1), new CustomizableThreadFactory("leaderboard-image-"),
+        new ThreadPoolExecutor.DiscardPolicy());
+  }
+
+  @PreDestroy
+  public void stop() {
+    renderer.shutdownNow();
+  }
+
+  /**
+   * Render the images of the rebuilt snapshot in the background.
+   *
+   * @param event snapshot rebuild
+   */
+  @EventListener
+  public void onSnapshot(LeaderboardSnapshotEvent event) {
+    renderer.execute(() -> {
+      try {
+        getLeaderboardImage(event.getDate());
+        getTaskStatusImage(event.getDate());
+      } catch (RuntimeException e) {
+        log.error("Failed to render images of {}", event.getDate(), e);
+      }
+    });
+  }
+
+  /**
+   * Get image of the top of the leaderboard.
+   *
+   * @param date day of the leaderboard
+   * @return png image
+   */
+  public CachedImage getLeaderboardImage(LocalDate date) {
+    return get(LEADERBOARD, date, true, () -> imageService.getLeaderboardTemplate(date,
+        leaderboardSnapshotService.getSnapshot(date, IMAGE_USER_LIMIT)));
+  }
+
+  /**
+   * Get image of the task statuses. Task statuses have no history, so an image of a past day,
+   * which is not in the cache, shows the current statuses and is not historical.
+   *
+   * @param date day of the task statuses
+   * @return png image
+   */
+  public CachedImage getTaskStatusImage(LocalDate date) {
+    return get(TASK_STATUS, date, !isFinal(date), () -> imageService.getTaskStatusTemplate(date,
+        taskStatusMatrixService.getMatrix(IMAGE_USER_LIMIT, null, null)));
+  }
+
+  /**
+   * Check if there are images for the day, there are none for days without a snapshot.
+   *
+   * @param date day of the image
+   * @return false for future days and days before the first snapshot
+   */
+  public boolean hasImage(LocalDate date) {
+    return leaderboardSnapshotService.hasSnapshot(date);
+  }
+
+  /**
+   * Check if the image of the day does not change anymore.
+   *
+   * @param date day of the image
+   * @return true for past days
+   */
+  public boolean isFinal(LocalDate date) {
+    return date.isBefore(LocalDate.now());
+  }
+
+  private CachedImage get(String kind, LocalDate date, boolean historical,
+      Supplier<String> html) {
+    String key = kind + "/" + date;
+    long version = isFinal(date) ? -1 : leaderboardSnapshotService.getVersion();
+    CachedImage image = find(key, version);
+    if (image != null) {
+      return image;
+    }
+    synchronized (renderLock) {
+      image = find(key, version);
+      if (image == null) {
+        byte[] png = imageService.createImage(html.get());
+        image = new CachedImage(version, historical, png,
+            "\"" + DigestUtils.md5DigestAsHex(png) + "\"");
+        synchronized (cache) {
+          cache.put(key, image);
+        }
+      }
+      return image;
+    }
+  }
+
+  private CachedImage find(String key, long version) {
+    synchronized (cache) {
+      CachedImage image = cache.get(key);
+      return image != null && (version < 0 || image.getVersion() == version) ? image : null;
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.community.tools.service;
+
+import java.time.LocalDate;
+import lombok.Data;
+
+/**
+ * Published after the leaderboard snapshot of the day is rebuilt.
+ */
+@Data
+public class LeaderboardSnapshotEvent {
+
+  private final LocalDate date;
+  private final long version;
+}
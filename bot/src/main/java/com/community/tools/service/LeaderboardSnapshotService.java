@@ -0,0 +1,183 @@
+package com.community.tools.service;
+
+import com.community.tools.dto.LeaderboardEntryDto;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Daily snapshots of the leaderboard. The snapshot of the current day is rebuilt shortly
+ * after scores change, snapshots of past days are kept as they were at the end of the day.
+ */
+@Slf4j
+@Service
+public class LeaderboardSnapshotService {
+
+  private static final String DELETE_SNAPSHOT =
+      "DELETE FROM leaderboard_snapshot WHERE snapshot_date = ?";
+  private static final String INSERT_SNAPSHOT = "INSERT INTO leaderboard_snapshot"
+      + " (snapshot_date, userid, rank, git_name, total_points, karma, point_by_task,"
+      + " completed_tasks, active)"
+      + " SELECT ?, userid, rank() OVER (ORDER BY points DESC), git_name, points, karma,"
+      + " point_by_task, completed_tasks, coalesce(last_activity_at > ?, false)"
+      + " FROM (SELECT userid, git_name, last_activity_at, coalesce(karma, 0) AS karma,"
+      + " coalesce(point_by_task, 0) AS point_by_task,"
+      + " coalesce(completed_tasks, 0) AS completed_tasks,"
+      + " coalesce(karma, 0) + coalesce(point_by_task, 0) AS points"
+      + " FROM state_entity WHERE git_name IS NOT NULL) AS users";
+  private static final String SELECT_SNAPSHOT = "SELECT userid, rank, git_name, total_points,"
+      + " karma, point_by_task, completed_tasks, active FROM leaderboard_snapshot"
+      + " WHERE snapshot_date = (SELECT max(snapshot_date) FROM leaderboard_snapshot"
+      + " WHERE snapshot_date <= ?) ORDER BY rank, userid LIMIT ?";
+  private static final String SELECT_FIRST_DATE =
+      "SELECT min(snapshot_date) FROM leaderboard_snapshot";
+
+  @Value("${leaderboard.active.days}")
+  private int activeDays;
+
+  @Autowired
+  private MessageService messageService;
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  private JdbcTemplate connection;
+  private TransactionTemplate transactionTemplate;
+  private final AtomicBoolean changed = new AtomicBoolean(true);
+  private final AtomicLong version = new AtomicLong();
+  private volatile LocalDate firstDate;
+
+  @Autowired
+  public void initConnection(DataSource dataSource,
+      PlatformTransactionManager transactionManager) {
+    this.connection = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Mark the leaderboard as changed, the snapshot of the day is rebuilt on the next refresh.
+   * Inside a transaction the mark is set after commit, so the refresh does not read the
+   * scores before the change, and rolled back changes are not marked.
+   */
+  public void markChanged() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      changed.set(true);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            changed.set(true);
+          }
+        });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void refreshOnStartup() {
+    refreshIfChanged();
+  }
+
+  /**
+   * Rebuild the snapshot of the day, if scores have changed since the last rebuild.
+   */
+  @Scheduled(fixedDelayString = "${leaderboard.snapshot.refresh.millis}")
+  public void refreshIfChanged() {
+    if (changed.getAndSet(false)) {
+      refresh();
+    }
+  }
+
+  /**
+   * Get version of the snapshot of the current day, it grows with every rebuild.
+   *
+   * @return version
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * Rebuild the snapshot of the day, also starts the snapshot of a new day.
+   */
+  @Scheduled(cron = "0 5 0 * * ?")
+  public void refresh() {
+    LocalDate today = LocalDate.now();
+    Timestamp activeAfter = Timestamp.valueOf(LocalDateTime.now().minusDays(activeDays));
+    try {
+      Integer users = transactionTemplate.execute(status -> {
+        connection.update(DELETE_SNAPSHOT, Date.valueOf(today));
+        return connection.update(INSERT_SNAPSHOT, Date.valueOf(today), activeAfter);
+      });
+      log.info("Leaderboard snapshot of {} rebuilt with {} users", today, users);
+    } catch (DataAccessException e) {
+      changed.set(true);
+      log.error("Failed to rebuild leaderboard snapshot of {}", today, e);
+      return;
+    }
+    eventPublisher.publishEvent(new LeaderboardSnapshotEvent(today, version.incrementAndGet()));
+  }
+
+  /**
+   * Check if there is a snapshot for the day, that is the day is not in the future and not
+   * before the first snapshot. Snapshots are never deleted, so the first day is read once.
+   *
+   * @param date day of the snapshot
+   * @return false if there is no snapshot for the day
+   */
+  public boolean hasSnapshot(LocalDate date) {
+    if (date.isAfter(LocalDate.now())) {
+      return false;
+    }
+    if (firstDate == null) {
+      Date first = connection.queryForObject(SELECT_FIRST_DATE, Date.class);
+      if (first == null) {
+        return false;
+      }
+      firstDate = first.toLocalDate();
+    }
+    return !date.isBefore(firstDate);
+  }
+
+  /**
+   * Get the leaderboard as it was at the end of the day, or now for the current day.
+   *
+   * @param date  day of the snapshot, the latest earlier snapshot is used if there is none
+   * @param limit max number of users, all users if null
+   * @return users by rank
+   */
+  public List<LeaderboardEntryDto> getSnapshot(LocalDate date, Integer limit) {
+    Map<String, String> platformNames = messageService.getIdWithName();
+    return connection.query(SELECT_SNAPSHOT, (rs, rowNum) -> {
+      LeaderboardEntryDto entry = new LeaderboardEntryDto();
+      entry.setRank(rs.getInt("rank"));
+      entry.setPlatformName(platformNames.get(rs.getString("userid")));
+      entry.setGitName(rs.getString("git_name"));
+      entry.setTotalPoints(rs.getInt("total_points"));
+      entry.setKarma(rs.getInt("karma"));
+      entry.setPointByTask(rs.getInt("point_by_task"));
+      entry.setCompletedTasks(rs.getInt("completed_tasks"));
+      entry.setActive(rs.getBoolean("active"));
+      return entry;
+    }, Date.valueOf(date), limit == null ? Integer.MAX_VALUE : limit);
+  }
+}
@@ -2,7 +2,7 @@ package com.community.tools.service;
 
 import com.community.tools.model.Messages;
 import com.community.tools.model.User;
-import com.community.tools.service.github.jpa.MentorsRepository;
+import com.community.tools.service.github.MentorRoster;
 import com.community.tools.util.statemachine.Event;
 import com.community.tools.util.statemachine.State;
 import com.community.tools.util.statemachine.jpa.StateMachineRepository;
@@ -28,11 +28,14 @@ public class PointsTaskService {
   StateMachineService stateMachineService;
 
   @Autowired
-  MentorsRepository mentorsRepository;
+  MentorRoster mentorRoster;
 
   @Autowired
   StateMachineRepository stateMachineRepository;
 
+  @Autowired
+  ScoreLedgerService scoreLedgerService;
+
   @Autowired
   private MessageService messageService;
 
@@ -45,9 +48,11 @@ public class PointsTaskService {
    * @param mentor GitNick of person, who add label "done" to  pull request
    * @param creator GitNick of person, who pull request
    * @param pullName Pull request title
+   * @param pullNumber Pull request number, points are added once per pull request
    */
-  public void addPointForCompletedTask(String mentor, String creator, String pullName) {
-    if (mentorsRepository.findByGitNick(mentor).isPresent()) {
+  public void addPointForCompletedTask(String mentor, String creator, String pullName,
+      int pullNumber) {
+    if (mentorRoster.isMentor(mentor)) {
       User stateEntity = stateMachineRepository.findByGitName(creator)
               .orElseThrow(EntityNotFoundException::new);
 
@@ -66,13 +71,14 @@ public class PointsTaskService {
       if (points == 0) {
         sendMessageWhichDescribesZeroPoints(stateEntity.getUserID(), pullName);
       }
-      int newUserPoints = stateEntity.getPointByTask() + points;
       if (taskDone == numberPullsAbilityReview) {
         sendAbilityReviewMess(stateEntity.getUserID());
       }
 
-      stateEntity.setPointByTask(newUserPoints);
-      stateMachineRepository.save(stateEntity);
+      if (points != 0) {
+        scoreLedgerService.addPoints(creator, points, "pull request labeled done",
+            "pull:" + pullNumber + ":done");
+      }
     }
   }
 
@@ -84,7 +84,7 @@ public class PublishWeekStatsService {
   public void publishTasksStatus() {
     String url = urlServer + "task-status";
     String date = LocalDate.now().toString();
-    String img = url + "img/" + date;
+    String img = url + "/img/" + date;
 
     messageService.sendBlockMessageToConversation(channel,
         messageConstructor.createInfoLinkMessage(Messages.TASKS_STATUS_MESSAGE, url, img));
@@ -0,0 +1,83 @@
+package com.community.tools.service;
+
+import com.community.tools.model.ScoreType;
+import com.community.tools.repository.ScoreLedgerRepository;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Scoring of users. Each change is appended to the score ledger and added to the user row by
+ * an atomic update, so concurrent hooks do not lose changes and the rest of the row,
+ * including the state machine, is not rewritten. A change is recorded once per source key,
+ * so redelivered or replayed hooks do not score twice.
+ */
+@Slf4j
+@Service
+public class ScoreLedgerService {
+
+  @Autowired
+  private ScoreLedgerRepository scoreLedgerRepository;
+  @Autowired
+  private StateMachineRepository stateMachineRepository;
+  @Autowired
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  /**
+   * Add karma to the user. Nothing is recorded for unknown users and for source keys, which
+   * are already recorded.
+   *
+   * @param gitName   GitHub login of user
+   * @param amount    amount of karma, may be negative
+   * @param reason    why the karma was changed
+   * @param sourceKey what caused the change, like "reaction:1"
+   * @return false if nothing was recorded
+   */
+  @Transactional
+  public boolean addKarma(String gitName, int amount, String reason, String sourceKey) {
+    if (scoreLedgerRepository.appendOnce(gitName, ScoreType.KARMA.name(), amount, reason,
+        sourceKey) == 0) {
+      return false;
+    }
+    stateMachineRepository.addKarma(gitName, amount);
+    leaderboardSnapshotService.markChanged();
+    return true;
+  }
+
+  /**
+   * Add points for task to the user. Nothing is recorded for unknown users and for source
+   * keys, which are already recorded.
+   *
+   * @param gitName   GitHub login of user
+   * @param amount    amount of points
+   * @param reason    why the points were changed
+   * @param sourceKey what caused the change, like "pull:1:done"
+   * @return false if nothing was recorded
+   */
+  @Transactional
+  public boolean addPoints(String gitName, int amount, String reason, String sourceKey) {
+    if (scoreLedgerRepository.appendOnce(gitName, ScoreType.POINTS.name(), amount, reason,
+        sourceKey) == 0) {
+      return false;
+    }
+    stateMachineRepository.addPointByTask(gitName, amount);
+    leaderboardSnapshotService.markChanged();
+    return true;
+  }
+
+  /**
+   * Set karma and points of all users to the sums of their ledger entries.
+   *
+   * @return number of updated users
+   */
+  @Transactional
+  public int recompute() {
+    stateMachineRepository.recomputeKarma(ScoreType.KARMA);
+    int users = stateMachineRepository.recomputePointByTask(ScoreType.POINTS);
+    log.info("Karma and points of {} users recomputed from the score ledger", users);
+    leaderboardSnapshotService.markChanged();
+    return users;
+  }
+}
@@ -0,0 +1,179 @@
+package com.community.tools.service;
+
+import com.community.tools.dto.TaskStatusMatrixDto;
+import com.community.tools.dto.TaskStatusMatrixDto.UserRow;
+import com.community.tools.model.User;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Matrix of task statuses of users. Task status changes mark the leaderboard snapshot as
+ * changed, so matrices are cached by the snapshot version and the query, and the ETag of a
+ * matrix is known before it is built. A change shows up with the next snapshot rebuild.
+ */
+@Service
+public class TaskStatusMatrixService {
+
+  @Value("${tasksForUsers}")
+  private String[] tasksForUsers;
+
+  @Value("${task.status.matrix.cache.size}")
+  private int cacheSize;
+
+  @Autowired
+  private StateMachineRepository stateMachineRepository;
+
+  @Autowired
+  private MessageService messageService;
+
+  @Autowired
+  private LeaderBoardService leaderBoardService;
+
+  @Autowired
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  private final long startedAt = System.currentTimeMillis();
+  private Map<String, CompletableFuture<TaskStatusMatrixDto>> cache;
+
+  /**
+   * Create the cache, matrices of older versions are evicted as the least recently used.
+   */
+  @PostConstruct
+  public void start() {
+    cache = new LinkedHashMap<String, CompletableFuture<TaskStatusMatrixDto>>(16, 0.75f,
+        true) {
+      @Override
+      protected boolean removeEldestEntry(
+          Map.Entry<String, CompletableFuture<TaskStatusMatrixDto>> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Get ETag of the matrix, without building it. Versions start again after a restart, so
+   * the start time is a part of the ETag.
+   *
+   * @param userLimit max number of users
+   * @param daysFetch only users active in this number of days
+   * @param sort      "points" to sort by total points, by completed tasks otherwise
+   * @return ETag of the matrix
+   */
+  public String getEtag(Integer userLimit, Integer daysFetch, String sort) {
+    return "\"" + DigestUtils.md5DigestAsHex(getKey(userLimit, daysFetch, sort)
+        .getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  /**
+   * Get the matrix from the cache, or build it, if the snapshot has changed since. Each
+   * matrix is built once, concurrent requests for it wait for the first one.
+   *
+   * @param userLimit max number of users
+   * @param daysFetch only users active in this number of days
+   * @param sort      "points" to sort by total points, by completed tasks otherwise
+   * @return task statuses of users
+   */
+  public TaskStatusMatrixDto getCachedMatrix(Integer userLimit, Integer daysFetch,
+      String sort) {
+    String key = getKey(userLimit, daysFetch, sort);
+    CompletableFuture<TaskStatusMatrixDto> matrix;
+    CompletableFuture<TaskStatusMatrixDto> building = new CompletableFuture<>();
+    synchronized (cache) {
+      matrix = cache.putIfAbsent(key, building);
+    }
+    if (matrix != null) {
+      try {
+        return matrix.join();
+      } catch (CompletionException e) {
+        throw new IllegalStateException("Failed to build task status matrix", e.getCause());
+      }
+    }
+    try {
+      building.complete(getMatrix(userLimit, daysFetch, sort));
+    } catch (RuntimeException e) {
+      synchronized (cache) {
+        cache.remove(key, building);
+      }
+      building.completeExceptionally(e);
+      throw e;
+    }
+    return building.join();
+  }
+
+  private String getKey(Integer userLimit, Integer daysFetch, String sort) {
+    // the day is a part of the key, as activity is counted back from it
+    return startedAt + "/" + leaderboardSnapshotService.getVersion() + "/" + LocalDate.now()
+        + "/" + userLimit + "/" + daysFetch + "/" + sort;
+  }
+
+  /**
+   * Build the matrix of task statuses. Users are selected, filtered, ordered and limited in
+   * the database, then the task statuses of only these users are read.
+   *
+   * @param userLimit max number of users
+   * @param daysFetch only users active in this number of days
+   * @param sort      "points" to sort by total points, by completed tasks otherwise
+   * @return task statuses of users
+   */
+  public TaskStatusMatrixDto getMatrix(Integer userLimit, Integer daysFetch, String sort) {
+    TaskStatusMatrixDto matrix = new TaskStatusMatrixDto();
+    matrix.getTasks().addAll(Arrays.asList(tasksForUsers));
+    Map<String, Integer> taskIndexes = new HashMap<>();
+    for (int i = 0; i < tasksForUsers.length; i++) {
+      taskIndexes.put(tasksForUsers[i], i);
+    }
+    Map<String, Integer> statusCodes = new HashMap<>();
+
+    List<User> users = leaderBoardService.getUsersPage(userLimit, daysFetch, sort, null);
+    Map<String, String> platformNames = messageService.getIdWithName();
+    Map<String, UserRow> rows = new LinkedHashMap<>();
+    for (User user : users) {
+      rows.put(user.getUserID(), newRow(user, platformNames.get(user.getUserID())));
+    }
+    if (!rows.isEmpty()) {
+      for (Object[] record : stateMachineRepository.findTaskStatusesOfUsers(rows.keySet())) {
+        String taskName = (String) record[1];
+        String taskStatus = (String) record[2];
+        if (taskName == null || taskStatus == null) {
+          continue;
+        }
+        // "inner/classes" and "inner.classes" are the same task, as on the dashboard
+        Integer taskIndex = taskIndexes.get(taskName.replace('/', '.'));
+        if (taskIndex != null) {
+          rows.get((String) record[0]).getTaskStatuses()[taskIndex] = statusCodes
+              .computeIfAbsent(taskStatus, status -> {
+                matrix.getStatuses().add(status);
+                return matrix.getStatuses().size() - 1;
+              });
+        }
+      }
+    }
+    matrix.setUsers(new ArrayList<>(rows.values()));
+    return matrix;
+  }
+
+  private UserRow newRow(User user, String platformName) {
+    UserRow userRow = new UserRow();
+    userRow.setPlatformName(platformName);
+    userRow.setGitName(user.getGitName());
+    userRow.setCompletedTasks(user.getCompletedTasks() == null ? 0 : user.getCompletedTasks());
+    int[] taskStatuses = new int[tasksForUsers.length];
+    Arrays.fill(taskStatuses, -1);
+    userRow.setTaskStatuses(taskStatuses);
+    return userRow;
+  }
+}
@@ -1,18 +1,22 @@
 package com.community.tools.service;
 
+import com.community.tools.model.GitHubHookEvent;
 import com.community.tools.model.TaskStatus;
 import com.community.tools.model.User;
 import com.community.tools.repository.TaskStatusRepository;
+import com.community.tools.util.TaskNameMatcher;
 import com.community.tools.util.statemachine.jpa.StateMachineRepository;
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import org.apache.commons.text.similarity.LevenshteinDistance;
-import org.json.JSONException;
-import org.json.JSONObject;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
 import org.kohsuke.github.GHPullRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,11 +24,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 public class TaskStatusService {
 
+  private static final String DONE = "done";
+
   @Value("${tasksForUsers}")
   private String[] tasksForUsers;
 
@@ -40,6 +50,22 @@ public class TaskStatusService {
   @Autowired
   private MessageService messageService;
 
+  @Autowired
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  private JdbcTemplate connection;
+  private TaskNameMatcher taskNameMatcher;
+
+  @Autowired
+  public void initConnection(DataSource dataSource) {
+    this.connection = new JdbcTemplate(dataSource);
+  }
+
+  @PostConstruct
+  public void initTaskNameMatcher() {
+    taskNameMatcher = new TaskNameMatcher(tasksForUsers, 2);
+  }
+
   /**
    * Sorted by fields.
    *
@@ -88,22 +114,74 @@ public class TaskStatusService {
   }
 
   /**
-   * Save into data base users task status.
+   * Reconcile task statuses of users with their pull requests. Users and their task statuses
+   * are loaded in one query each, compared in memory, and only the changes are written back
+   * in batches, together with the number of completed tasks of each user.
    *
-   * @param ghPullRequests github pull requests
+   * @param ghPullRequests github pull requests, later pull requests win for the same task
    */
+  @Transactional
   public void cleanBootTasksStatus(List<GHPullRequest> ghPullRequests) {
-    ghPullRequests.forEach(ghPullRequest -> {
+    Map<String, Map<String, String>> statusesByGitName = new HashMap<>();
+    for (GHPullRequest ghPullRequest : ghPullRequests) {
       String gitName;
       try {
         gitName = ghPullRequest.getUser().getLogin();
       } catch (IOException exception) {
         throw new RuntimeException(exception);
       }
-      String title = ghPullRequest.getTitle();
-      String status = pullRequestsService.getLastLabel(ghPullRequest);
-      setTaskStatus(gitName, title, status);
-    });
+      taskNameMatcher.match(ghPullRequest.getTitle()).ifPresent(task -> statusesByGitName
+          .computeIfAbsent(gitName, name -> new HashMap<>())
+          .put(task, pullRequestsService.getLastLabel(ghPullRequest)));
+    }
+    if (statusesByGitName.isEmpty()) {
+      return;
+    }
+    List<User> users = stateMachineRepository.findAllByGitNameIn(statusesByGitName.keySet());
+    if (users.isEmpty()) {
+      return;
+    }
+    Map<String, Map<String, TaskStatus>> storedByUserId = taskStatusRepository
+        .findAllByUserIn(users).stream()
+        .collect(Collectors.groupingBy(taskStatus -> taskStatus.getUser().getUserID(),
+            Collectors.toMap(TaskStatus::getTaskName, taskStatus -> taskStatus,
+                (first, second) -> first)));
+
+    Date now = new Date();
+    List<Object[]> inserts = new ArrayList<>();
+    List<Object[]> updates = new ArrayList<>();
+    List<Object[]> completedTasks = new ArrayList<>();
+    for (User user : users) {
+      Map<String, TaskStatus> stored = storedByUserId
+          .getOrDefault(user.getUserID(), Collections.emptyMap());
+      Map<String, String> statuses = new HashMap<>();
+      stored.forEach((task, taskStatus) -> statuses.put(task, taskStatus.getTaskStatus()));
+      statusesByGitName.get(user.getGitName()).forEach((task, status) -> {
+        TaskStatus taskStatus = stored.get(task);
+        if (taskStatus == null) {
+          inserts.add(new Object[] {task, status, user.getUserID(), now});
+        } else if (!status.equals(taskStatus.getTaskStatus())) {
+          updates.add(new Object[] {status, now, taskStatus.getTaskStatusID()});
+        }
+        statuses.put(task, status);
+      });
+      int completed = (int) statuses.values().stream().filter(DONE::equals).count();
+      if (user.getCompletedTasks() == null || user.getCompletedTasks() != completed) {
+        completedTasks.add(new Object[] {completed, user.getUserID()});
+      }
+    }
+    connection.batchUpdate("INSERT INTO task_status (task_name, task_status, userid, created)"
+        + " VALUES (?, ?, ?, ?)", inserts);
+    connection.batchUpdate("UPDATE task_status SET task_status = ?, updated = ?"
+        + " WHERE task_statusid = ?", updates);
+    connection.batchUpdate("UPDATE state_entity SET completed_tasks = ? WHERE userid = ?",
+        completedTasks);
+    if (!inserts.isEmpty() || !updates.isEmpty() || !completedTasks.isEmpty()) {
+      leaderboardSnapshotService.markChanged();
+    }
+    log.info("Reconciled {} pull requests: {} task statuses created, {} updated, {} users"
+        + " changed", ghPullRequests.size(), inserts.size(), updates.size(),
+        completedTasks.size());
   }
 
   /**
@@ -113,61 +191,69 @@ public class TaskStatusService {
    * @return number tasks
    */
   public int countCompletedTasksByUser(User user) {
-    List<TaskStatus> taskStatusList = taskStatusRepository.findAllByUser(user);
-    return taskStatusList.stream().filter(taskStatus -> taskStatus.getTaskStatus().equals("done"))
-        .collect(Collectors.toList()).size();
+    return (int) taskStatusRepository.countByUserAndTaskStatus(user, DONE);
+  }
+
+  /**
+   * Recompute the number of completed tasks of all users from their task statuses.
+   */
+  @Scheduled(cron = "0 50 0 * * ?")
+  public void recomputeCompletedTasks() {
+    log.info("Completed tasks of {} users recomputed",
+        stateMachineRepository.recomputeCompletedTasks(DONE));
+    leaderboardSnapshotService.markChanged();
   }
 
   /**
    * Update task status after pull request.
    *
-   * @param json json
+   * @param event pull request event from GitHub webhook
    */
-  public void updateTasksStatus(JSONObject json) {
-    String gitName;
-    String title;
-    String status;
-    try {
-      gitName = json.getJSONObject("pull_request").getJSONObject("user").getString("login");
-      title = json.getJSONObject("pull_request").getString("title");
-      if (json.getJSONObject("pull_request").getJSONArray("labels").isEmpty()) {
-        status = "pull request";
-      } else {
-        status = json.getJSONObject("pull_request").getJSONArray("labels")
-            .getJSONObject(0).getString("name");
-      }
-    } catch (JSONException exception) {
-      throw new RuntimeException(exception);
-    }
-    setTaskStatus(gitName, title, status);
+  @Transactional
+  public void updateTasksStatus(GitHubHookEvent event) {
+    String status = event.getLabels().isEmpty() ? "pull request" : event.getLabels().get(0);
+    setTaskStatus(event.getPullAuthor(), event.getPullTitle(), status);
   }
 
   /**
-   * Set task status for task's user.
+   * Set task status for task's user. The status is set for the task closest to the title,
+   * within two edits. The number of completed tasks of the user is changed in the same
+   * transaction, when the status moves into or out of done.
    *
    * @param gitName user gitName
    * @param title   title pull request
    * @param status  task status
    */
+  @Transactional
   public void setTaskStatus(String gitName, String title, String status) {
-    LevenshteinDistance levenshteinDistance = new LevenshteinDistance();
-    int distance = 3;
-    User user = stateMachineRepository.findByGitName(gitName).orElse(null);
-    if (!(user == null)) {
-      Arrays.stream(tasksForUsers).forEach(task -> {
-        if (levenshteinDistance.apply(task, title) < distance) {
-          TaskStatus taskStatus = taskStatusRepository
-              .findTaskStatusByUserAndTaskName(user, task).orElse(null);
-          if (!(taskStatus == null)) {
-            updateTaskStatus(taskStatus, status);
-          } else {
-            createTaskStatus(user, task, status);
-          }
-        }
-      });
-      user.setCompletedTasks(countCompletedTasksByUser(user));
-      stateMachineRepository.save(user);
+    // the user row is locked, so concurrent hooks of the user do not count a task twice
+    User user = stateMachineRepository.findByGitNameForUpdate(gitName).orElse(null);
+    if (user == null) {
+      return;
     }
+    taskNameMatcher.match(title).ifPresent(task -> {
+      TaskStatus taskStatus = taskStatusRepository
+          .findTaskStatusByUserAndTaskName(user, task).orElse(null);
+      boolean wasDone = false;
+      boolean changed = true;
+      if (!(taskStatus == null)) {
+        wasDone = DONE.equals(taskStatus.getTaskStatus());
+        changed = !status.equals(taskStatus.getTaskStatus());
+        updateTaskStatus(taskStatus, status);
+      } else {
+        createTaskStatus(user, task, status);
+      }
+      if (user.getCompletedTasks() == null) {
+        stateMachineRepository.setCompletedTasks(user.getUserID(),
+            countCompletedTasksByUser(user));
+      } else if (wasDone != DONE.equals(status)) {
+        stateMachineRepository.addCompletedTasks(user.getUserID(), wasDone ? -1 : 1);
+      }
+      // the task status image is rendered with the snapshot, so any status change counts
+      if (changed) {
+        leaderboardSnapshotService.markChanged();
+      }
+    });
   }
 
   /**
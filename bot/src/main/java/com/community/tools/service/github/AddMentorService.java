@@ -2,7 +2,6 @@ package com.community.tools.service.github;
 
 import com.community.tools.service.MessageService;
 import com.community.tools.service.StateMachineService;
-import com.community.tools.service.github.jpa.MentorsRepository;
 import com.community.tools.util.statemachine.Event;
 import com.community.tools.util.statemachine.State;
 
@@ -21,7 +20,7 @@ public class AddMentorService {
   @Autowired
   private StateMachineService stateMachineService;
   @Autowired
-  private MentorsRepository mentorsRepository;
+  private MentorRoster mentorRoster;
 
   @Autowired
   private MessageService messageService;
@@ -33,7 +32,7 @@ public class AddMentorService {
    * @param creator GitHub login of trainee
    */
   public void addMentor(String mentor, String creator) {
-    if (mentorsRepository.findByGitNick(mentor).isPresent()) {
+    if (mentorRoster.isMentor(mentor)) {
       StateMachine<State, Event> machine = stateMachineService.restoreMachineByNick(creator);
       machine.getExtendedState().getVariables().put("mentor", mentor);
       stateMachineService
@@ -48,19 +47,20 @@ public class AddMentorService {
   }
 
   /**
-   * Send notify to channel with trainee GH login, url of pull and mentor GH login.
+   * Send notify to channel with trainee GH login, url of pull and mentor GH login. The mentor
+   * is mentioned by Slack id, or named by GH login, when the Slack id is not known.
    *
    * @param user GitHub login of trainee
    * @param url  Url of pull request
    */
   public void sendNotifyWithMentor(String user, String url) throws IOException, SlackApiException {
+    String mentor = stateMachineService.restoreMachineByNick(user)
+        .getExtendedState().getVariables().get("mentor").toString();
     messageService
         .sendMessageToConversation(channel, "User " + user
          + " created a pull request \n url: " + url
-         + "\n Please check it : <@" + mentorsRepository
-           .findByGitNick(stateMachineService.restoreMachineByNick(user)
-             .getExtendedState().getVariables().get("mentor").toString())
-               .get().getSlackId() + ">");
+         + "\n Please check it : " + mentorRoster.findSlackId(mentor)
+             .map(slackId -> "<@" + slackId + ">").orElse(mentor));
 
   }
 
@@ -0,0 +1,129 @@
+package com.community.tools.service.github;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintenance of monthly partitions of GitHookData table. Partitions are created ahead of
+ * time, partitions older than the retention are dropped, and partitions older than the
+ * compaction age keep only events, to which hook handlers are subscribed, so they can still
+ * be replayed. A compacted partition is marked by its table comment, so it is not compacted
+ * again after a restart.
+ */
+@Slf4j
+@Service
+public class GitHookDataRetentionService {
+
+  private static final Pattern PARTITION = Pattern.compile("GitHookData_(\\d{4})_(\\d{2})");
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private static final String COMPACTED = "compacted";
+  private static final String LIST_PARTITIONS = "SELECT c.relname,"
+      + " obj_description(c.oid, 'pg_class') AS description FROM pg_inherits i"
+      + " JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent"
+      + " WHERE p.relname = 'GitHookData'";
+
+  @Value("${github.hook.storage.months.ahead}")
+  private int monthsAhead;
+  @Value("${github.hook.storage.retention.months}")
+  private int retentionMonths;
+  @Value("${github.hook.storage.compaction.months}")
+  private int compactionMonths;
+
+  @Autowired
+  private GitHubHookService gitHubHookService;
+
+  private JdbcTemplate connection;
+
+  @Autowired
+  public void initConnection(DataSource dataSource) {
+    this.connection = new JdbcTemplate(dataSource);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void maintainOnStartup() {
+    maintainPartitions();
+  }
+
+  /**
+   * Create, compact and drop partitions of GitHookData table.
+   */
+  @Scheduled(cron = "0 30 0 * * ?")
+  public void maintainPartitions() {
+    try {
+      YearMonth current = YearMonth.now(ZoneOffset.UTC);
+      for (int i = 0; i <= monthsAhead; i++) {
+        createPartition(current.plusMonths(i));
+      }
+      for (Map.Entry<String, Boolean> partition : listPartitions().entrySet()) {
+        String name = partition.getKey();
+        YearMonth month = monthOf(name);
+        if (month.isBefore(current.minusMonths(retentionMonths))) {
+          connection.execute("DROP TABLE public.\"" + name + "\"");
+          log.info("Dropped GitHookData partition {}", name);
+        } else if (month.isBefore(current.minusMonths(compactionMonths))
+            && !partition.getValue()) {
+          compact(name);
+        }
+      }
+    } catch (DataAccessException e) {
+      log.warn("Failed to maintain GitHookData partitions", e);
+    }
+  }
+
+  private void createPartition(YearMonth month) {
+    connection.execute(String.format("CREATE TABLE IF NOT EXISTS public.\"GitHookData_%s\""
+            + " PARTITION OF public.\"GitHookData\" FOR VALUES FROM ('%s') TO ('%s')",
+        month.format(SUFFIX), month.atDay(1) + "T00:00:00Z",
+        month.plusMonths(1).atDay(1) + "T00:00:00Z"));
+  }
+
+  private void compact(String partition) {
+    List<String> eventTypes = new ArrayList<>(gitHubHookService.getRoutedEventTypes());
+    String placeholders = String.join(", ", Collections.nCopies(eventTypes.size(), "?"));
+    int deleted = connection.update("DELETE FROM public.\"" + partition + "\""
+        + " WHERE event IS NULL OR event NOT IN (" + placeholders + ")", eventTypes.toArray());
+    connection.execute("COMMENT ON TABLE public.\"" + partition + "\" IS '" + COMPACTED + "'");
+    log.info("Compacted GitHookData partition {}, deleted {} rows", partition, deleted);
+  }
+
+  /**
+   * Get partitions of GitHookData table.
+   *
+   * @return true for compacted partitions by partition name
+   */
+  private Map<String, Boolean> listPartitions() {
+    Map<String, Boolean> partitions = new LinkedHashMap<>();
+    connection.query(LIST_PARTITIONS, rs -> {
+      String name = rs.getString("relname");
+      if (PARTITION.matcher(name).matches()) {
+        partitions.put(name, COMPACTED.equals(rs.getString("description")));
+      }
+    });
+    return partitions;
+  }
+
+  private YearMonth monthOf(String partition) {
+    Matcher matcher = PARTITION.matcher(partition);
+    matcher.matches();
+    return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+  }
+}
@@ -1,23 +1,62 @@
 package com.community.tools.service.github;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
-import java.util.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sql.DataSource;
-import org.json.JSONObject;
+import lombok.extern.slf4j.Slf4j;
 import org.postgresql.util.PGobject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * Write-behind appender of GitHub webhook payloads to GitHookData table. Payloads are queued
+ * and written by one thread with batch inserts, when the batch is full or the flush interval
+ * has passed since its first payload. When the queue is full, the payload is written by the
+ * caller. A batch, which failed, is retried with a backoff and dropped only after the last
+ * attempt, the counters are logged periodically.
+ */
+@Slf4j
 @Service
 public class GitHookDataService {
 
-  private final String sql = "INSERT INTO public.\"GitHookData\" (time, jsonb_data) VALUES (? , ?)";
+  private final String sql =
+      "INSERT INTO public.\"GitHookData\" (time, event, jsonb_data) VALUES (?, ?, ?)";
+
+  @Value("${github.hook.audit.queue.capacity}")
+  private int queueCapacity;
+  @Value("${github.hook.audit.batch.size}")
+  private int batchSize;
+  @Value("${github.hook.audit.flush.millis}")
+  private long flushMillis;
+  @Value("${github.hook.audit.max.attempts}")
+  private int maxAttempts;
+  @Value("${github.hook.audit.retry.millis}")
+  private long retryMillis;
 
   private JdbcTemplate connection;
+  private BlockingQueue<Object[]> queue;
+  private Thread writer;
+  private volatile boolean running;
+
+  private final AtomicLong writtenRows = new AtomicLong();
+  private final AtomicLong flushes = new AtomicLong();
+  private final AtomicLong callerWrites = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong droppedRows = new AtomicLong();
 
   @Autowired
   public void initConnection(DataSource dataSource) {
@@ -25,18 +64,147 @@ public class GitHookDataService {
   }
 
   /**
-   * Save JSON from GitHub to GitHookData table into Database.
-   * @param json Json from GitHub
+   * Start the writer thread.
+   */
+  @PostConstruct
+  public void start() {
+    queue = new LinkedBlockingQueue<>(queueCapacity);
+    running = true;
+    writer = new Thread(this::writeLoop, "github-hook-audit");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Write payloads, which are already queued, and stop the writer thread.
+   *
+   * @throws InterruptedException InterruptedException
    */
-  public void saveDataIntoDB(JSONObject json) {
-    Date date = new Date();
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    writer.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  /**
+   * Queue JSON from GitHub to be saved to GitHookData table into Database.
+   * @param event "X-GitHub-Event" header
+   * @param body Json from GitHub as received
+   */
+  public void saveDataIntoDB(String event, byte[] body) {
     PGobject out = new PGobject();
-    out.setType("json");
+    out.setType("jsonb");
     try {
-      out.setValue(json.toString());
+      out.setValue(new String(body, StandardCharsets.UTF_8));
     } catch (SQLException e) {
       throw new RuntimeException(e);
     }
-    connection.update(sql, date, out);
+    Object[] row = {new Timestamp(System.currentTimeMillis()), event, out};
+    if (!queue.offer(row)) {
+      callerWrites.incrementAndGet();
+      connection.update(sql, row);
+      writtenRows.incrementAndGet();
+    }
+  }
+
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  public long getWrittenRows() {
+    return writtenRows.get();
+  }
+
+  public long getFlushes() {
+    return flushes.get();
+  }
+
+  public long getCallerWrites() {
+    return callerWrites.get();
+  }
+
+  public long getRetries() {
+    return retries.get();
+  }
+
+  public long getDroppedRows() {
+    return droppedRows.get();
+  }
+
+  /**
+   * Log the counters of the writer.
+   */
+  @Scheduled(fixedDelayString = "${github.hook.audit.stats.millis}")
+  public void logStats() {
+    log.info("GitHub hook audit: {} in queue, {} written in {} flushes, {} written by callers,"
+        + " {} retries, {} dropped", getQueueDepth(), getWrittenRows(), getFlushes(),
+        getCallerWrites(), getRetries(), getDroppedRows());
+  }
+
+  private void writeLoop() {
+    List<Object[]> batch = new ArrayList<>(batchSize);
+    try {
+      while (running) {
+        Object[] first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.currentTimeMillis() + flushMillis;
+        while (batch.size() < batchSize) {
+          long wait = deadline - System.currentTimeMillis();
+          Object[] next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          queue.drainTo(batch, batchSize - batch.size());
+        }
+        flush(batch);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    while (queue.drainTo(batch, batchSize) > 0) {
+      flush(batch);
+    }
+  }
+
+  private void flush(List<Object[]> batch) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        connection.batchUpdate(sql, batch);
+        writtenRows.addAndGet(batch.size());
+        flushes.incrementAndGet();
+        log.debug("Saved {} GitHub hooks, {} in queue", batch.size(), queue.size());
+        break;
+      } catch (DataAccessException e) {
+        if (attempt >= maxAttempts || !backoff(attempt)) {
+          log.error("Failed to save {} GitHub hooks in {} attempts, {} dropped so far",
+              batch.size(), attempt, droppedRows.addAndGet(batch.size()), e);
+          break;
+        }
+        retries.incrementAndGet();
+        log.warn("Failed to save {} GitHub hooks, attempt {} of {}", batch.size(), attempt,
+            maxAttempts, e);
+      }
+    }
+    batch.clear();
+  }
+
+  /**
+   * Wait before the next attempt, the wait doubles with every attempt.
+   *
+   * @param attempt number of the failed attempt
+   * @return false if the writer was interrupted
+   */
+  private boolean backoff(int attempt) {
+    try {
+      Thread.sleep(retryMillis << (attempt - 1));
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
   }
 }
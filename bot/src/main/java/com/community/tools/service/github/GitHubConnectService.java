@@ -1,45 +1,164 @@
 package com.community.tools.service.github;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.extras.okhttp3.OkHttpConnector;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 public class GitHubConnectService {
 
+  private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+
   @Value("${github.token}")
   private String token;
 
   @Value("${github.repository}")
   private String nameRepository;
 
+  @Value("${github.connection.ttl.minutes}")
+  private long connectionTtlMinutes;
+
+  private final OkHttpClient httpClient = new OkHttpClient.Builder()
+      .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+      .build();
+
+  private final AtomicLong connectionReuses = new AtomicLong();
+  private final AtomicLong connectionCreations = new AtomicLong();
+
+  private volatile GitHub gitHub;
+  private volatile GHRepository repository;
+  private volatile long connectedAt;
+
   /**
-   * Get GitHub connection.
+   * Get GitHub connection. The client is shared between callers and re-created
+   * only when it is older than the configured TTL.
    * @return GitHub
    */
   public GitHub getGitHubConnection() {
-    GitHub gitHub;
-    try {
-      gitHub = GitHub.connectUsingOAuth(token);
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+    GitHub current = gitHub;
+    if (current != null && !isExpired()) {
+      connectionReuses.incrementAndGet();
+      return current;
+    }
+    synchronized (this) {
+      if (gitHub == null || isExpired()) {
+        connect();
+      } else {
+        connectionReuses.incrementAndGet();
+      }
+      return gitHub;
     }
-    return gitHub;
   }
 
   /**
-   * Get GitHub repository.
+   * Get GitHub repository. The repository handle is resolved once per connection, the
+   * connection is read under the same lock, so a handle of a replaced client is not kept.
    * @return GHRepository
    */
   public GHRepository getGitHubRepository() {
-    GHRepository repository;
+    GHRepository current = repository;
+    if (current != null && !isExpired()) {
+      connectionReuses.incrementAndGet();
+      return current;
+    }
+    synchronized (this) {
+      if (gitHub == null || isExpired()) {
+        connect();
+      }
+      if (repository == null) {
+        try {
+          repository = gitHub.getRepository(nameRepository);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return repository;
+    }
+  }
+
+  /**
+   * Get all pages of a list resource of the repository from the REST API. Used for the
+   * resources, which the GitHub client can only list through their parent, like reactions of
+   * a single comment. Pages are followed by the "next" link of the Link header.
+   * @param path path relative to the repository, for example "issues/comments/1/reactions"
+   * @return response body of each page
+   */
+  public List<String> getRepositoryResourcePages(String path) {
+    List<String> pages = new ArrayList<>();
+    String url = getGitHubConnection().getApiUrl() + "/repos/" + nameRepository + "/" + path;
+    while (url != null) {
+      Request request = new Request.Builder()
+          .url(url)
+          .header("Authorization", "token " + token)
+          .header("Accept", "application/vnd.github.squirrel-girl-preview+json")
+          .build();
+      try (Response response = httpClient.newCall(request).execute()) {
+        if (!response.isSuccessful()) {
+          throw new IOException("GitHub responded " + response.code() + " to " + path);
+        }
+        pages.add(response.body().string());
+        url = nextPageUrl(response.header("Link"));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    return pages;
+  }
+
+  /**
+   * Get URL of the next page from the Link header.
+   * @param link value of Link header, may be null
+   * @return URL or null on the last page
+   */
+  static String nextPageUrl(String link) {
+    if (link == null) {
+      return null;
+    }
+    Matcher matcher = NEXT_LINK.matcher(link);
+    return matcher.find() ? matcher.group(1) : null;
+  }
+
+  public long getConnectionReuses() {
+    return connectionReuses.get();
+  }
+
+  public long getConnectionCreations() {
+    return connectionCreations.get();
+  }
+
+  private boolean isExpired() {
+    return System.currentTimeMillis() - connectedAt
+        > TimeUnit.MINUTES.toMillis(connectionTtlMinutes);
+  }
+
+  private void connect() {
+    repository = null;
     try {
-      repository = getGitHubConnection().getRepository(nameRepository);
+      gitHub = new GitHubBuilder()
+          .withOAuthToken(token)
+          .withConnector(new OkHttpConnector(httpClient))
+          .build();
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
-    return repository;
+    connectedAt = System.currentTimeMillis();
+    log.info("GitHub client created ({} created, {} reused so far)",
+        connectionCreations.incrementAndGet(), connectionReuses.get());
   }
 }
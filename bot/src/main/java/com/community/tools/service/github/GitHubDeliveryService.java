@@ -0,0 +1,98 @@
+package com.community.tools.service.github;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Index of received GitHub webhook deliveries by "X-GitHub-Delivery" header. Recent
+ * deliveries are kept in a LRU set in memory, all deliveries of the retention period are
+ * kept in github_delivery table, so redeliveries are recognized after restart too.
+ */
+@Slf4j
+@Service
+public class GitHubDeliveryService {
+
+  private static final String INSERT = "INSERT INTO public.github_delivery"
+      + " (delivery_id, received_at) VALUES (?, ?) ON CONFLICT DO NOTHING";
+  private static final String DELETE = "DELETE FROM public.github_delivery WHERE delivery_id = ?";
+  private static final String DELETE_OLD =
+      "DELETE FROM public.github_delivery WHERE received_at < ?";
+
+  @Value("${github.hook.delivery.cache.size}")
+  private int cacheSize;
+  @Value("${github.hook.delivery.retention.days}")
+  private int retentionDays;
+
+  private JdbcTemplate connection;
+  private Set<String> recent;
+
+  @Autowired
+  public void initConnection(DataSource dataSource) {
+    this.connection = new JdbcTemplate(dataSource);
+  }
+
+  /**
+   * Create the LRU set of recent deliveries.
+   */
+  @PostConstruct
+  public void initCache() {
+    recent = Collections.synchronizedSet(Collections.newSetFromMap(
+        new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > cacheSize;
+          }
+        }));
+  }
+
+  /**
+   * Mark the delivery as received.
+   *
+   * @param deliveryId "X-GitHub-Delivery" header
+   * @return false if the delivery was received before
+   */
+  public boolean markReceived(String deliveryId) {
+    if (recent.contains(deliveryId)) {
+      return false;
+    }
+    boolean inserted = connection.update(INSERT, deliveryId,
+        new Timestamp(System.currentTimeMillis())) > 0;
+    recent.add(deliveryId);
+    if (!inserted) {
+      log.info("GitHub delivery {} was received before", deliveryId);
+    }
+    return inserted;
+  }
+
+  /**
+   * Forget the delivery, which was not handled, so its redelivery is accepted.
+   *
+   * @param deliveryId "X-GitHub-Delivery" header
+   */
+  public void forget(String deliveryId) {
+    recent.remove(deliveryId);
+    connection.update(DELETE, deliveryId);
+  }
+
+  /**
+   * Delete deliveries older than the retention period.
+   */
+  @Scheduled(cron = "0 40 0 * * ?")
+  public void deleteOldDeliveries() {
+    int deleted = connection.update(DELETE_OLD, new Timestamp(
+        System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays)));
+    log.info("Deleted {} old GitHub deliveries", deleted);
+  }
+}
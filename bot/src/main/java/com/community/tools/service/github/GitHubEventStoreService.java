@@ -0,0 +1,241 @@
+package com.community.tools.service.github;
+
+import static com.community.tools.model.Event.COMMENT;
+import static com.community.tools.model.Event.COMMIT;
+import static com.community.tools.model.Event.PULL_REQUEST_CLOSED;
+import static com.community.tools.model.Event.PULL_REQUEST_CREATED;
+import static org.kohsuke.github.GHIssueState.CLOSED;
+
+import com.community.tools.model.EventData;
+import com.community.tools.model.GitHubEvent;
+import com.community.tools.model.GitHubHookEvent;
+import com.community.tools.model.GitHubSyncCursor;
+import com.community.tools.repository.GitHubEventRepository;
+import com.community.tools.repository.GitHubSyncCursorRepository;
+import com.community.tools.service.LeaderboardSnapshotService;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHDirection;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestCommitDetail;
+import org.kohsuke.github.GHPullRequestQueryBuilder;
+import org.kohsuke.github.GHPullRequestReviewComment;
+import org.kohsuke.github.GHRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class GitHubEventStoreService {
+
+  static final String PULL_REQUESTS_CURSOR = "pull-requests";
+
+  @Autowired
+  private GitHubConnectService service;
+  @Autowired
+  private GitHubEventRepository eventRepository;
+  @Autowired
+  private GitHubSyncCursorRepository cursorRepository;
+  @Autowired
+  private GitHubParallelFetcher fetcher;
+  @Autowired
+  private StateMachineRepository stateMachineRepository;
+  @Autowired
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  /**
+   * Get all stored events by the date interval. The store is kept up to date by webhooks
+   * and by the scheduled synchronization. Events with the same time are all kept and ordered
+   * by their key.
+   *
+   * @param startDate startDate
+   * @param endDate   endDate
+   * @return list of EventData by the date interval
+   */
+  public List<EventData> getEvents(Date startDate, Date endDate) {
+    return eventRepository
+        .findAllByCreatedAtAfterAndCreatedAtBeforeOrderByCreatedAtAscEventKeyAsc(
+            startDate, endDate)
+        .stream().map(GitHubEvent::toEventData).collect(Collectors.toList());
+  }
+
+  /**
+   * Synchronize the store with GitHub in the background.
+   */
+  @Scheduled(fixedDelayString = "${github.events.sync.millis}")
+  public void scheduledSync() {
+    try {
+      syncSinceLastEvent();
+    } catch (RuntimeException e) {
+      log.error("Failed to synchronize GitHub events", e);
+    }
+  }
+
+  /**
+   * Fetch pull requests updated since the last synchronized pull request and save their
+   * events. The cursor is the latest update time of the pull requests, which were
+   * synchronized, it is not taken from the stored events, because webhooks store events
+   * of pull requests, whose commits are not synchronized yet. There is no cursor on the
+   * first run, so the store is filled with the whole history once. Review comments and
+   * commits of the pull requests are fetched in parallel.
+   */
+  public synchronized void syncSinceLastEvent() {
+    Date cursor = cursorRepository.findById(PULL_REQUESTS_CURSOR)
+        .map(GitHubSyncCursor::getSyncedAt).orElse(null);
+    Date lastUpdatedAt = cursor;
+    List<GitHubEvent> events = new ArrayList<>();
+    List<GitHubParallelFetcher.Fetch<GitHubEvent>> fetches = new ArrayList<>();
+    try {
+      GHRepository repository = service.getGitHubRepository();
+      Iterable<GHPullRequest> pullRequests = repository.queryPullRequests()
+          .state(GHIssueState.ALL)
+          .sort(GHPullRequestQueryBuilder.Sort.UPDATED)
+          .direction(GHDirection.DESC)
+          .list();
+      for (GHPullRequest pullRequest : pullRequests) {
+        Date updatedAt = pullRequest.getUpdatedAt();
+        if (cursor != null && updatedAt.before(cursor)) {
+          break;
+        }
+        if (lastUpdatedAt == null || updatedAt.after(lastUpdatedAt)) {
+          lastUpdatedAt = updatedAt;
+        }
+        events.addAll(getPullRequestEvents(pullRequest));
+        fetches.add(() -> fetchReviewCommentEvents(pullRequest));
+        fetches.add(() -> fetchCommitEvents(pullRequest));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    events.addAll(fetcher.fetchAll(fetches));
+    eventRepository.saveAll(events);
+    updateLastActivity(events);
+    if (lastUpdatedAt != null) {
+      cursorRepository.save(new GitHubSyncCursor(PULL_REQUESTS_CURSOR, lastUpdatedAt));
+    }
+    log.info("Synchronized {} GitHub events of pull requests updated since {}",
+        events.size(), cursor);
+  }
+
+  /**
+   * Move the last activity of users to their latest stored pull request on startup, so users
+   * of a store, which was filled before the column existed, are not taken as inactive.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void backfillLastActivity() {
+    try {
+      int users = stateMachineRepository.backfillLastActivityAt(PULL_REQUEST_CREATED);
+      log.info("Last activity of {} users backfilled", users);
+      if (users > 0) {
+        leaderboardSnapshotService.markChanged();
+      }
+    } catch (DataAccessException e) {
+      log.error("Failed to backfill last activity of users", e);
+    }
+  }
+
+  /**
+   * Move the last activity of users to their latest created pull request. Activity is a part
+   * of the snapshot, so the leaderboard is marked as changed, if a user has moved.
+   *
+   * @param events saved events
+   */
+  private void updateLastActivity(List<GitHubEvent> events) {
+    Map<String, Date> lastActivity = events.stream()
+        .filter(event -> event.getType() == PULL_REQUEST_CREATED)
+        .collect(Collectors.toMap(GitHubEvent::getActorLogin, GitHubEvent::getCreatedAt,
+            BinaryOperator.maxBy(Date::compareTo)));
+    int users = lastActivity.entrySet().stream()
+        .mapToInt(entry -> stateMachineRepository.updateLastActivityAt(entry.getKey(),
+            entry.getValue()))
+        .sum();
+    if (users > 0) {
+      leaderboardSnapshotService.markChanged();
+    }
+  }
+
+  private List<GitHubEvent> getPullRequestEvents(GHPullRequest pullRequest)
+      throws IOException {
+    List<GitHubEvent> events = new ArrayList<>();
+    int number = pullRequest.getNumber();
+    String actorPullRequest = pullRequest.getUser().getLogin();
+
+    events.add(new GitHubEvent("pr-created:" + number, pullRequest.getCreatedAt(),
+        actorPullRequest, PULL_REQUEST_CREATED, number));
+    if (pullRequest.getState().equals(CLOSED)) {
+      events.add(new GitHubEvent("pr-closed:" + number, pullRequest.getClosedAt(),
+          actorPullRequest, PULL_REQUEST_CLOSED, number));
+    }
+    return events;
+  }
+
+  private List<GitHubEvent> fetchReviewCommentEvents(GHPullRequest pullRequest)
+      throws IOException {
+    List<GitHubEvent> events = new ArrayList<>();
+    int number = pullRequest.getNumber();
+    for (GHPullRequestReviewComment comment : pullRequest.listReviewComments()) {
+      events.add(new GitHubEvent("comment:" + comment.getId(), comment.getCreatedAt(),
+          comment.getUser().getLogin(), COMMENT, number));
+    }
+    return events;
+  }
+
+  private List<GitHubEvent> fetchCommitEvents(GHPullRequest pullRequest) throws IOException {
+    List<GitHubEvent> events = new ArrayList<>();
+    int number = pullRequest.getNumber();
+    String actorPullRequest = pullRequest.getUser().getLogin();
+    for (GHPullRequestCommitDetail commit : pullRequest.listCommits()) {
+      events.add(new GitHubEvent("commit:" + number + ":" + commit.getSha(),
+          commit.getCommit().getAuthor().getDate(), actorPullRequest, COMMIT, number));
+    }
+    return events;
+  }
+
+  /**
+   * Save pull request and review comment events from GitHub webhook.
+   * Commits are not part of these payloads and are picked up by the next sync.
+   *
+   * @param hookEvent data from Github webhook
+   */
+  public void saveHookEvent(GitHubHookEvent hookEvent) {
+    if (hookEvent.getPullNumber() == null) {
+      return;
+    }
+    int number = hookEvent.getPullNumber();
+    String action = hookEvent.getAction();
+
+    if (hookEvent.getCommentId() != null && action.equals("created")) {
+      eventRepository.save(new GitHubEvent("comment:" + hookEvent.getCommentId(),
+          parseDate(hookEvent.getCommentCreatedAt()), hookEvent.getCommentAuthor(), COMMENT,
+          number));
+    } else if (action.equals("opened")) {
+      GitHubEvent event = new GitHubEvent("pr-created:" + number,
+          parseDate(hookEvent.getPullCreatedAt()), hookEvent.getPullAuthor(),
+          PULL_REQUEST_CREATED, number);
+      eventRepository.save(event);
+      updateLastActivity(Collections.singletonList(event));
+    } else if (action.equals("closed")) {
+      eventRepository.save(new GitHubEvent("pr-closed:" + number,
+          parseDate(hookEvent.getPullClosedAt()), hookEvent.getPullAuthor(),
+          PULL_REQUEST_CLOSED, number));
+    }
+  }
+
+  private Date parseDate(String date) {
+    return Date.from(Instant.parse(date));
+  }
+}
@@ -0,0 +1,267 @@
+package com.community.tools.service.github;
+
+import com.community.tools.model.GitHubHookEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streaming parser of GitHub webhook payloads. Only the fields of {@link GitHubHookEvent} are
+ * read, all other values are skipped without building a tree of the payload.
+ */
+@Component
+public class GitHubHookEventParser {
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  @FunctionalInterface
+  private interface FieldReader {
+
+    /**
+     * Read value of the field, the parser is on the first token of the value.
+     *
+     * @param name name of field
+     * @return false if the value was not read and has to be skipped
+     * @throws IOException IOException
+     */
+    boolean read(String name) throws IOException;
+  }
+
+  /**
+   * Parse GitHub webhook payload.
+   *
+   * @param type value of "X-GitHub-Event" header
+   * @param body payload
+   * @return typed view of the payload
+   */
+  public GitHubHookEvent parse(String type, byte[] body) {
+    GitHubHookEvent event = new GitHubHookEvent();
+    event.setType(type);
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      parser.nextToken();
+      readObject(parser, name -> readRoot(parser, event, name));
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return event;
+  }
+
+  private boolean readRoot(JsonParser parser, GitHubHookEvent event, String name)
+      throws IOException {
+    switch (name) {
+      case "action":
+        event.setAction(text(parser));
+        return true;
+      case "repository":
+        readObject(parser, field -> {
+          if (field.equals("full_name")) {
+            event.setRepository(text(parser));
+            return true;
+          }
+          return false;
+        });
+        return true;
+      case "sender":
+        event.setSenderLogin(login(parser));
+        return true;
+      case "pull_request":
+      case "issue":
+        readObject(parser, field -> readPull(parser, event, field));
+        return true;
+      case "label":
+        readObject(parser, field -> {
+          if (field.equals("name")) {
+            event.setLabelName(text(parser));
+            return true;
+          }
+          return false;
+        });
+        return true;
+      case "comment":
+        readObject(parser, field -> readComment(parser, event, field));
+        return true;
+      case "review":
+        readObject(parser, field -> readReview(parser, event, field));
+        return true;
+      case "check_run":
+        readObject(parser, field -> readCheckRun(parser, event, field));
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private boolean readPull(JsonParser parser, GitHubHookEvent event, String name)
+      throws IOException {
+    switch (name) {
+      case "number":
+        event.setPullNumber(parser.getIntValue());
+        return true;
+      case "title":
+        event.setPullTitle(text(parser));
+        return true;
+      case "created_at":
+        event.setPullCreatedAt(text(parser));
+        return true;
+      case "closed_at":
+        event.setPullClosedAt(text(parser));
+        return true;
+      case "user":
+        event.setPullAuthor(login(parser));
+        return true;
+      case "_links":
+        readObject(parser, link -> {
+          if (link.equals("html")) {
+            readObject(parser, field -> {
+              if (field.equals("href")) {
+                event.setPullUrl(text(parser));
+                return true;
+              }
+              return false;
+            });
+            return true;
+          }
+          return false;
+        });
+        return true;
+      case "labels":
+        readArray(parser, field -> {
+          if (field.equals("name")) {
+            event.getLabels().add(text(parser));
+            return true;
+          }
+          return false;
+        });
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private boolean readComment(JsonParser parser, GitHubHookEvent event, String name)
+      throws IOException {
+    switch (name) {
+      case "id":
+        event.setCommentId(parser.getLongValue());
+        return true;
+      case "user":
+        event.setCommentAuthor(login(parser));
+        return true;
+      case "body":
+        event.setCommentBody(text(parser));
+        return true;
+      case "created_at":
+        event.setCommentCreatedAt(text(parser));
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private boolean readReview(JsonParser parser, GitHubHookEvent event, String name)
+      throws IOException {
+    switch (name) {
+      case "user":
+        event.setReviewAuthor(login(parser));
+        return true;
+      case "body":
+        event.setReviewBody(text(parser));
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private boolean readCheckRun(JsonParser parser, GitHubHookEvent event, String name)
+      throws IOException {
+    switch (name) {
+      case "conclusion":
+        event.setCheckRunConclusion(text(parser));
+        return true;
+      case "html_url":
+        event.setCheckRunUrl(text(parser));
+        return true;
+      case "check_suite":
+        readObject(parser, field -> {
+          if (field.equals("head_branch")) {
+            event.setCheckRunBranch(text(parser));
+            return true;
+          }
+          return false;
+        });
+        return true;
+      case "pull_requests":
+        readArray(parser, field -> {
+          if (field.equals("number") && event.getPullNumber() == null) {
+            event.setPullNumber(parser.getIntValue());
+            return true;
+          }
+          return false;
+        });
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Read fields of the object, on which the parser is. Null values and values of other
+   * types are skipped.
+   *
+   * @param parser parser on the start of the object
+   * @param reader reader of fields
+   * @throws IOException IOException
+   */
+  private void readObject(JsonParser parser, FieldReader reader) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.getCurrentName();
+      parser.nextToken();
+      if (!reader.read(name)) {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Read fields of each object in the array, on which the parser is.
+   *
+   * @param parser parser on the start of the array
+   * @param reader reader of fields
+   * @throws IOException IOException
+   */
+  private void readArray(JsonParser parser, FieldReader reader) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      readObject(parser, reader);
+    }
+  }
+
+  private String login(JsonParser parser) throws IOException {
+    String[] login = new String[1];
+    readObject(parser, field -> {
+      if (field.equals("login")) {
+        login[0] = text(parser);
+        return true;
+      }
+      return false;
+    });
+    return login[0];
+  }
+
+  private String text(JsonParser parser) throws IOException {
+    if (parser.currentToken().isStructStart()) {
+      parser.skipChildren();
+      return null;
+    }
+    return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+  }
+}
@@ -0,0 +1,125 @@
+package com.community.tools.service.github;
+
+import com.community.tools.model.GitHubHookEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pipeline for GitHub webhook events. Events are partitioned by repository and pull
+ * request number, each partition is handled by one thread, so events of a pull request keep
+ * their order while events of different pull requests are handled in parallel.
+ */
+@Slf4j
+@Component
+public class GitHubHookPipeline {
+
+  @Value("${github.hook.partitions}")
+  private int partitions;
+  @Value("${github.hook.queue.capacity}")
+  private int queueCapacity;
+  @Value("${github.hook.enqueue.timeout.millis}")
+  private long enqueueTimeoutMillis;
+
+  @Autowired
+  private GitHubHookService gitHubHookService;
+
+  private final List<ThreadPoolExecutor> workers = new ArrayList<>();
+
+  /**
+   * Start one worker thread per partition.
+   */
+  @PostConstruct
+  public void start() {
+    for (int i = 0; i < partitions; i++) {
+      ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<>(queueCapacity),
+          new CustomizableThreadFactory("github-hook-" + i + "-"), this::waitForSlot);
+      worker.prestartAllCoreThreads();
+      workers.add(worker);
+    }
+  }
+
+  /**
+   * Handle events, which are already queued, and stop the workers.
+   *
+   * @throws InterruptedException InterruptedException
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    for (ThreadPoolExecutor worker : workers) {
+      worker.shutdown();
+    }
+    for (ThreadPoolExecutor worker : workers) {
+      worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Queue the event for its partition. When the partition queue is full, the caller waits
+   * for a free slot up to the enqueue timeout.
+   *
+   * @param event data from Github webhook
+   * @return false if the event was not queued, also after the pipeline is stopped
+   */
+  public boolean submit(GitHubHookEvent event) {
+    ThreadPoolExecutor worker = workers.get(Math.floorMod(partitionKey(event).hashCode(),
+        workers.size()));
+    try {
+      worker.execute(() -> handle(event));
+      return true;
+    } catch (RejectedExecutionException e) {
+      log.warn("GitHub hook event {} is rejected: {}", partitionKey(event), e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Wait for a free slot in the queue of a full partition, up to the enqueue timeout. Stopped
+   * partitions take no events, an event queued while the partition stops is taken back.
+   */
+  private void waitForSlot(Runnable task, ThreadPoolExecutor worker) {
+    if (worker.isShutdown()) {
+      throw new RejectedExecutionException("GitHub hook pipeline is stopped");
+    }
+    try {
+      if (!worker.getQueue().offer(task, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new RejectedExecutionException("GitHub hook queue is full");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException("Interrupted while waiting for the queue", e);
+    }
+    if (worker.isShutdown() && worker.remove(task)) {
+      throw new RejectedExecutionException("GitHub hook pipeline is stopped");
+    }
+  }
+
+  private void handle(GitHubHookEvent event) {
+    try {
+      gitHubHookService.doActionsAfterReceiveHook(event);
+    } catch (RuntimeException e) {
+      log.error("Failed to handle GitHub hook event {}", partitionKey(event), e);
+    }
+  }
+
+  /**
+   * Get repository and pull request number of the event.
+   *
+   * @param event data from Github webhook
+   * @return key in format "owner/repository#number"
+   */
+  static String partitionKey(GitHubHookEvent event) {
+    return event.getRepository() + "#" + event.getPullNumber();
+  }
+}
@@ -0,0 +1,75 @@
+package com.community.tools.service.github;
+
+import com.community.tools.model.GitHubHookEvent;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Set;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class GitHubHookReplayService {
+
+  private static final String SQL = "SELECT event, jsonb_data::text FROM public.\"GitHookData\""
+      + " WHERE time >= ? AND time < ? AND event IS NOT NULL ORDER BY time";
+  private static final int FETCH_SIZE = 100;
+
+  @Autowired
+  private DataSource dataSource;
+  @Autowired
+  private GitHubHookEventParser gitHubHookEventParser;
+  @Autowired
+  private GitHubHookService gitHubHookService;
+
+  /**
+   * Run stored GitHub webhook events of the interval through the given hook handlers, in the
+   * order they were received. Payloads are read with a cursor on a separate connection, so
+   * the handlers save their data in their own transactions. Only idempotent handlers can be
+   * replayed, so the data, which was already handled, is not changed twice.
+   *
+   * @param startDate    start of the interval, inclusive
+   * @param endDate      end of the interval, exclusive
+   * @param handlerNames names of hook handlers
+   * @return number of replayed events
+   * @see GitHubHookService#REPLAYABLE_HANDLERS
+   */
+  public int replay(Date startDate, Date endDate, Set<String> handlerNames) {
+    if (!GitHubHookService.REPLAYABLE_HANDLERS.containsAll(handlerNames)) {
+      throw new IllegalArgumentException("Handlers " + handlerNames + " can not be replayed");
+    }
+    int replayed = 0;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+        statement.setFetchSize(FETCH_SIZE);
+        statement.setTimestamp(1, new Timestamp(startDate.getTime()));
+        statement.setTimestamp(2, new Timestamp(endDate.getTime()));
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            GitHubHookEvent event = gitHubHookEventParser.parse(resultSet.getString(1),
+                resultSet.getString(2).getBytes(StandardCharsets.UTF_8));
+            if (event.getAction() != null) {
+              gitHubHookService.doActionsAfterReceiveHook(event, handlerNames);
+              replayed++;
+            }
+          }
+        }
+      } finally {
+        connection.rollback();
+      }
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
+    log.info("Replayed {} GitHub hook events from {} to {} through {}",
+        replayed, startDate, endDate, handlerNames);
+    return replayed;
+  }
+}
@@ -1,5 +1,6 @@
 package com.community.tools.service.github;
 
+import com.community.tools.model.GitHubHookEvent;
 import com.community.tools.service.MessageConstructor;
 import com.community.tools.service.MessageService;
 import com.community.tools.service.PointsTaskService;
@@ -10,18 +11,43 @@ import com.community.tools.util.statemachine.Event;
 import com.github.seratch.jslack.api.methods.SlackApiException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 public class GitHubHookService {
 
+  public static final String NOTIFICATION = "notification";
+  public static final String FAILED_BUILD = "failedBuild";
+  public static final String NEW_TASK = "newTask";
+  public static final String MENTOR = "mentor";
+  public static final String POINTS = "points";
+  public static final String KARMA = "karma";
+  public static final String KARMA_LEDGER = "karmaLedger";
+  public static final String TASK_STATUS = "taskStatus";
+  public static final String EVENT_STORE = "eventStore";
+
+  /**
+   * Handlers, which give the same result when an event is handled again. The others send
+   * messages or count events, so they are not replayed.
+   */
+  public static final Set<String> REPLAYABLE_HANDLERS = Collections.unmodifiableSet(
+      new HashSet<>(Arrays.asList(MENTOR, KARMA, KARMA_LEDGER, TASK_STATUS, EVENT_STORE)));
+
   @Value("${git.check.label}")
   private String labeledStr;
   @Value("${git.check.new.req}")
@@ -43,28 +69,90 @@ public class GitHubHookService {
   private MessageService messageService;
   @Autowired
   private TaskStatusService taskStatusService;
+  @Autowired
+  private GitHubEventStoreService eventStoreService;
+
+  private final Map<String, Consumer<GitHubHookEvent>> handlers = new HashMap<>();
+  private final Map<String, List<String>> routes = new HashMap<>();
+
+  /**
+   * Register the handlers by name and subscribe them to "event:action" keys, or to "event"
+   * keys for all actions of the event.
+   */
+  @PostConstruct
+  public void initRoutes() {
+    handlers.put(NOTIFICATION, this::sendNotificationMessageAboutPR);
+    handlers.put(FAILED_BUILD, this::sendMessageAboutFailedBuild);
+    handlers.put(NEW_TASK, this::giveNewTaskIfPrOpened);
+    handlers.put(MENTOR, this::addMentorIfEventIsReview);
+    handlers.put(POINTS, this::addPointIfPullLabeledDone);
+    handlers.put(KARMA, this::checkReactionToChangeKarma);
+    handlers.put(KARMA_LEDGER, karmaService::recordComment);
+    handlers.put(TASK_STATUS, taskStatusService::updateTasksStatus);
+    handlers.put(EVENT_STORE, eventStoreService::saveHookEvent);
+
+    route("pull_request:" + opened, NOTIFICATION, NEW_TASK, EVENT_STORE);
+    route("pull_request:" + labeledStr, NOTIFICATION, POINTS, KARMA);
+    route("pull_request:closed", EVENT_STORE);
+    route("pull_request", TASK_STATUS);
+    route("pull_request_review:submitted", MENTOR);
+    route("pull_request_review_comment:created", EVENT_STORE);
+    route("pull_request_review_comment", MENTOR, KARMA_LEDGER);
+    route("issue_comment", MENTOR, KARMA_LEDGER);
+    route("check_run:completed", FAILED_BUILD);
+  }
+
+  private void route(String key, String... handlerNames) {
+    routes.computeIfAbsent(key, k -> new ArrayList<>()).addAll(Arrays.asList(handlerNames));
+  }
 
   /**
-   * Methid receive data from Github and check it.
+   * Get types of events, to which at least one handler is subscribed.
    *
-   * @param json JSON with data from Github webhook
+   * @return values of "X-GitHub-Event" header
    */
-  public void doActionsAfterReceiveHook(JSONObject json) {
-    sendNotificationMessageAboutPR(json);
-    sendMessageAboutFailedBuild(json);
-    giveNewTaskIfPrOpened(json);
-    addMentorIfEventIsReview(json);
-    addPointIfPullLabeledDone(json);
-    checkReactionToChangeKarma(json);
-    taskStatusService.updateTasksStatus(json);
+  public Set<String> getRoutedEventTypes() {
+    return routes.keySet().stream().map(key -> key.split(":")[0]).collect(Collectors.toSet());
   }
 
+  /**
+   * Run the handlers, which are subscribed to the event and its action. A failed handler
+   * does not stop the others.
+   *
+   * @param event data from Github webhook
+   */
+  public void doActionsAfterReceiveHook(GitHubHookEvent event) {
+    doActionsAfterReceiveHook(event, handlers.keySet());
+  }
+
+  /**
+   * Run only the given handlers among those, which are subscribed to the event and its
+   * action. Used to replay stored events.
+   *
+   * @param event        data from Github webhook
+   * @param handlerNames names of handlers to run
+   */
+  public void doActionsAfterReceiveHook(GitHubHookEvent event, Set<String> handlerNames) {
+    List<String> names = new ArrayList<>(routes.getOrDefault(
+        event.getType() + ":" + event.getAction(), Collections.emptyList()));
+    names.addAll(routes.getOrDefault(event.getType(), Collections.emptyList()));
+    for (String name : names) {
+      if (!handlerNames.contains(name)) {
+        continue;
+      }
+      try {
+        handlers.get(name).accept(event);
+      } catch (RuntimeException e) {
+        log.error("Failed to handle GitHub hook {}:{} by {}",
+            event.getType(), event.getAction(), name, e);
+      }
+    }
+  }
 
-  private void sendNotificationMessageAboutPR(JSONObject json) {
-    if (json.get("action").toString().equals(opened) || checkForLabeled(json)) {
-      JSONObject pull = json.getJSONObject("pull_request");
-      String user = pull.getJSONObject("user").getString("login");
-      String url = pull.getJSONObject("_links").getJSONObject("html").getString("href");
+  private void sendNotificationMessageAboutPR(GitHubHookEvent event) {
+    if (event.getAction().equals(opened) || event.getLabels().contains("ready for review")) {
+      String user = event.getPullAuthor();
+      String url = event.getPullUrl();
       if (addMentorService.doesMentorExist(user)) {
         try {
           addMentorService.sendNotifyWithMentor(user, url);
@@ -79,116 +167,42 @@ public class GitHubHookService {
     }
   }
 
-  private boolean checkForLabeled(JSONObject json) {
-    if (json.get("action").toString().equals(labeledStr)) {
-      List<Object> list = json.getJSONObject("pull_request").getJSONArray("labels").toList();
-      return list.stream().map(o -> (HashMap) o)
-              .anyMatch(e -> e.get("name").equals("ready for review"));
-    }
-    return false;
+  private void addMentorIfEventIsReview(GitHubHookEvent event) {
+    String mentor = event.getCommentAuthor() != null
+        ? event.getCommentAuthor() : event.getReviewAuthor();
+    addMentorService.addMentor(mentor, event.getPullAuthor());
   }
 
-
-  private void addMentorIfEventIsReview(JSONObject json) {
-    if (json.get("action").equals("submitted") || checkComment(json)) {
-      String mentor;
-      String creator;
-      try {
-        mentor = json.getJSONObject("comment").getJSONObject("user").getString("login");
-      } catch (JSONException e) {
-        mentor = json.getJSONObject("review").getJSONObject("user").getString("login");
-      }
-      try {
-        creator = json.getJSONObject("pull_request").getJSONObject("user").getString("login");
-      } catch (JSONException e) {
-        creator = json.getJSONObject("issue").getJSONObject("user").getString("login");
-      }
-
-
-      addMentorService.addMentor(mentor, creator);
+  private void addPointIfPullLabeledDone(GitHubHookEvent event) {
+    if ("done".equals(event.getLabelName())) {
+      pointsTaskService.addPointForCompletedTask(event.getSenderLogin(), event.getPullAuthor(),
+          event.getPullTitle(), event.getPullNumber());
     }
   }
 
-  private void addPointIfPullLabeledDone(JSONObject json) {
-    if (json.get("action").toString().equals(labeledStr)
-            && json.getJSONObject("label").getString("name").equals("done")) {
-      List<Object> list = json.getJSONObject("pull_request").getJSONArray("labels").toList();
-      String sender = json.getJSONObject("sender").getString("login");
-      String creator = json.getJSONObject("pull_request").getJSONObject("user").getString("login");
-      String pullName = json.getJSONObject("pull_request").getString("title");
-      pointsTaskService.addPointForCompletedTask(sender, creator, pullName);
+  private void checkReactionToChangeKarma(GitHubHookEvent event) {
+    if ("done".equals(event.getLabelName())) {
+      karmaService.changeKarmaBasedOnReaction(event.getPullNumber(), event.getPullAuthor());
     }
   }
 
-  private void addKarmaForCommentApproved(JSONObject json) {
-    boolean checkCommentApproved = false;
-    String traineeReviewer = "";
-    if (json.get("action").equals("created") && hasIssueAndComment(json)) {
-      traineeReviewer = json.getJSONObject("comment").getJSONObject("user").getString("login");
-      checkCommentApproved = json.getJSONObject("comment")
-              .getString("body").equalsIgnoreCase("approved");
-    } else if (json.get("action").equals("submitted")) {
-      traineeReviewer = json.getJSONObject("review").getJSONObject("user").getString("login");
-      if (json.getJSONObject("review").getString("body") != null) {
-        checkCommentApproved = json.getJSONObject("review")
-                .getString("body").equalsIgnoreCase("approved");
-      }
-    }
-    if (checkCommentApproved) {
-      karmaService.changeUserKarma(traineeReviewer, 1);
-    }
-  }
+  private void giveNewTaskIfPrOpened(GitHubHookEvent event) {
+    String userNick = event.getSenderLogin();
 
-  private void checkReactionToChangeKarma(JSONObject json) {
-    if (json.get("action").equals(labeledStr)
-            && json.getJSONObject("label").getString("name").equals("done")) {
-      int numberOfPullRequest = json.getInt("number");
-      karmaService.changeKarmaBasedOnReaction(numberOfPullRequest);
-    }
-  }
-
-  private boolean hasIssueAndComment(JSONObject json) {
-    boolean checkIssue = false;
-    if (checkComment(json)) {
-      checkIssue = json.has("issue");
-    }
-    return checkIssue;
-  }
-
-  private boolean checkComment(JSONObject json) {
-    boolean checkComment = false;
-    try {
-      json.getJSONObject("comment");
-      checkComment = true;
-    } catch (JSONException e) {
-      e.getMessage();
-    }
-    return checkComment;
+    String userId = stateMachineService.getIdByNick(userNick);
+    stateMachineService
+        .doAction(stateMachineService.restoreMachineByNick(userNick), new SimplePayload(userId),
+            Event.SEND_ESTIMATE_TASK);
   }
 
-  private void giveNewTaskIfPrOpened(JSONObject json) {
-    if (json.get("action").toString().equals(opened)) {
-      String userNick = json.getJSONObject("sender").getString("login");
-
+  private void sendMessageAboutFailedBuild(GitHubHookEvent event) {
+    if ("failure".equals(event.getCheckRunConclusion())) {
+      String url = event.getCheckRunUrl();
+      String task = event.getCheckRunBranch();
+      String userNick = event.getSenderLogin();
       String userId = stateMachineService.getIdByNick(userNick);
-      stateMachineService
-          .doAction(stateMachineService.restoreMachineByNick(userNick), new SimplePayload(userId),
-              Event.SEND_ESTIMATE_TASK);
-    }
-  }
-
-  private void sendMessageAboutFailedBuild(JSONObject json) {
-    if (json.get("action").toString().equals("completed") && json.has("check_run")) {
-      JSONObject checkRun = json.getJSONObject("check_run");
-      if (checkRun.getString("conclusion").equals("failure")) {
-
-        String url = checkRun.getString("html_url");
-        String task = checkRun.getJSONObject("check_suite").getString("head_branch");
-        String userNick = json.getJSONObject("sender").getString("login");
-        String userId = stateMachineService.getIdByNick(userNick);
-        messageService.sendBlocksMessage(messageService.getUserById(userId),
-            messageConstructor.createFailedBuildMessage(url, task));
-      }
+      messageService.sendBlocksMessage(messageService.getUserById(userId),
+          messageConstructor.createFailedBuildMessage(url, task));
     }
   }
 }
@@ -0,0 +1,181 @@
+package com.community.tools.service.github;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.kohsuke.github.GHException;
+import org.kohsuke.github.GHFileNotFoundException;
+import org.kohsuke.github.GHIOException;
+import org.kohsuke.github.GHRateLimit;
+import org.kohsuke.github.HttpException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class GitHubParallelFetcher {
+
+  private static final int MAX_ATTEMPTS = 3;
+  private static final long BASE_BACKOFF_MILLIS = 1000;
+  private static final long SECONDARY_RATE_LIMIT_MILLIS = 60000;
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final String RETRY_AFTER = "Retry-After";
+
+  @Autowired
+  @Qualifier("gitHubFetchExecutor")
+  private Executor executor;
+  @Autowired
+  private GitHubConnectService service;
+
+  @Value("${github.fetch.rate.reserve}")
+  private int rateReserve;
+
+  /**
+   * Request to GitHub API, which returns a list of results.
+   *
+   * @param <R> type of result
+   */
+  @FunctionalInterface
+  public interface Fetch<R> {
+
+    List<R> fetch() throws IOException;
+  }
+
+  /**
+   * Run fetches in parallel and merge their results in the order of fetches. The first
+   * failed fetch fails the call, the other fetches are not started or retried anymore.
+   *
+   * @param fetches requests to GitHub API
+   * @param <R>     type of result
+   * @return merged results of all fetches
+   */
+  public <R> List<R> fetchAll(List<Fetch<R>> fetches) {
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<CompletableFuture<List<R>>> futures = fetches.stream()
+        .map(fetch -> CompletableFuture.supplyAsync(() -> fetchWithRetry(fetch, failure),
+            executor))
+        .collect(Collectors.toList());
+    List<R> results = new ArrayList<>();
+    try {
+      futures.forEach(future -> results.addAll(future.join()));
+    } catch (CompletionException e) {
+      failure.compareAndSet(null, e.getCause());
+      futures.forEach(future -> future.cancel(false));
+      throw new RuntimeException(failure.get());
+    }
+    return results;
+  }
+
+  /**
+   * Run the fetch, retry I/O errors with exponential backoff. Rate limited responses are
+   * retried after Retry-After.
+   */
+  private <R> List<R> fetchWithRetry(Fetch<R> fetch, AtomicReference<Throwable> failure) {
+    for (int attempt = 1; ; attempt++) {
+      if (failure.get() != null) {
+        throw new CancellationException("Another GitHub request has failed");
+      }
+      waitForRateLimit();
+      IOException error;
+      try {
+        return fetch.fetch();
+      } catch (IOException e) {
+        error = e;
+      } catch (GHException e) {
+        // paged iterables wrap I/O errors of the next page
+        if (!(e.getCause() instanceof IOException)) {
+          failure.compareAndSet(null, e);
+          throw e;
+        }
+        error = (IOException) e.getCause();
+      }
+      if (attempt == MAX_ATTEMPTS) {
+        failure.compareAndSet(null, error);
+        throw new RuntimeException(error);
+      }
+      long backoff = retryAfterMillis(error);
+      if (backoff < 0) {
+        backoff = (BASE_BACKOFF_MILLIS << (attempt - 1))
+            + ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS);
+      }
+      log.info("GitHub request failed, attempt {} of {}, retry in {} ms",
+          attempt, MAX_ATTEMPTS, backoff, error);
+      sleep(backoff);
+    }
+  }
+
+  /**
+   * Get the pause, which GitHub asks for after a rate limited response. Secondary rate limit
+   * responses without Retry-After are retried after a minute, as GitHub recommends.
+   *
+   * @param e error of the request
+   * @return pause in milliseconds, or -1 if the response was not rate limited
+   */
+  static long retryAfterMillis(IOException e) {
+    Map<String, List<String>> headers = null;
+    if (e instanceof GHIOException) {
+      headers = ((GHIOException) e).getResponseHeaderFields();
+    } else if (e instanceof GHFileNotFoundException) {
+      headers = ((GHFileNotFoundException) e).getResponseHeaderFields();
+    }
+    if (headers != null) {
+      for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+        if (RETRY_AFTER.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+          try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(header.getValue().get(0).trim()));
+          } catch (NumberFormatException ignored) {
+            break;
+          }
+        }
+      }
+    }
+    if (e instanceof HttpException) {
+      int code = ((HttpException) e).getResponseCode();
+      String message = String.valueOf(e.getMessage()).toLowerCase();
+      if (code == TOO_MANY_REQUESTS || code == HttpURLConnection.HTTP_FORBIDDEN
+          && (message.contains("rate limit") || message.contains("abuse"))) {
+        return SECONDARY_RATE_LIMIT_MILLIS;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Spread the remaining requests until the rate limit reset, when fewer than the reserve
+   * are left according to the rate limit headers of the last response.
+   */
+  private void waitForRateLimit() {
+    GHRateLimit rateLimit = service.getGitHubConnection().lastRateLimit();
+    if (rateLimit == null || rateLimit.getRemaining() >= rateReserve) {
+      return;
+    }
+    long untilReset = rateLimit.getResetDate().getTime() - System.currentTimeMillis();
+    if (untilReset > 0) {
+      long pause = untilReset / Math.max(rateLimit.getRemaining(), 1);
+      log.info("{} GitHub requests left, pause for {} ms", rateLimit.getRemaining(), pause);
+      sleep(pause);
+    }
+  }
+
+  void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+  }
+}
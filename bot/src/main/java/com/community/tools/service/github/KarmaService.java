@@ -1,24 +1,25 @@
 package com.community.tools.service.github;
 
-import com.community.tools.model.GitHubComment;
-import com.community.tools.model.User;
-import com.community.tools.service.github.jpa.MentorsRepository;
-import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import com.community.tools.model.ApprovedComment;
+import com.community.tools.model.GitHubHookEvent;
+import com.community.tools.repository.ApprovedCommentRepository;
+import com.community.tools.service.ScoreLedgerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BinaryOperator;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
-import org.kohsuke.github.GHIssueComment;
-import org.kohsuke.github.GHPullRequest;
-import org.kohsuke.github.GHPullRequestReviewComment;
-import org.kohsuke.github.GHReaction;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.PagedIterable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -26,113 +27,138 @@ import org.springframework.stereotype.Service;
 @Service
 public class KarmaService {
 
+  private static final String APPROVED = "approved";
+
   @Autowired
   private GitHubConnectService service;
   @Autowired
-  private StateMachineRepository stateMachineRepository;
+  private ScoreLedgerService scoreLedgerService;
+  @Autowired
+  private MentorRoster mentorRoster;
   @Autowired
-  private MentorsRepository mentorsRepository;
+  private ApprovedCommentRepository approvedCommentRepository;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
 
   /**
-   * This method will increase karma, if comment is approved.
+   * Keep the ledger of "approved" comments up to date with issue_comment and
+   * pull_request_review_comment hooks. A comment is removed from the ledger, when it is
+   * deleted or edited to another text.
    *
-   * @param traineeReviewer Github login of trainee
-   * @param amountOfKarma   amount of karma
+   * @param event data from Github webhook
    */
-  public void changeUserKarma(String traineeReviewer, int amountOfKarma) {
-    log.info("Trainee {} gets {} points in karma", traineeReviewer, amountOfKarma);
-    if (stateMachineRepository.findByGitName(traineeReviewer).isPresent()
-            && !mentorsRepository.findByGitNick(traineeReviewer).isPresent()) {
-      User user = stateMachineRepository.findByGitName(traineeReviewer).get();
-      user.setKarma(user.getKarma() + amountOfKarma);
-      stateMachineRepository.save(user);
+  public void recordComment(GitHubHookEvent event) {
+    Long commentId = event.getCommentId();
+    if (commentId == null || event.getPullNumber() == null) {
+      return;
+    }
+    boolean approved = !"deleted".equals(event.getAction()) && event.getCommentBody() != null
+        && event.getCommentBody().toLowerCase().trim().equals(APPROVED);
+    if (approved) {
+      String resourcePath = event.getType().equals("issue_comment")
+          ? "issues/comments" : "pulls/comments";
+      approvedCommentRepository.save(new ApprovedComment(commentId, event.getPullNumber(),
+          event.getCommentAuthor(), Date.from(Instant.parse(event.getCommentCreatedAt())),
+          resourcePath));
+    } else if (approvedCommentRepository.existsById(commentId)) {
+      approvedCommentRepository.deleteById(commentId);
     }
   }
 
   /**
-   * This method will change karma, if comment is approved.
+   * This method will change karma, if comment is approved. Approved comments are taken from
+   * the local ledger, only reactions of the first three reviewers are fetched from GitHub,
+   * since there are no webhooks for reactions. All pages of reactions are fetched. A pull
+   * request without approved comments in the ledger may be older than the ledger, so its
+   * approved comments are looked up on GitHub and recorded.
    *
-   * @param numberOfPull number of pull request
+   * @param numberOfPull     number of pull request
+   * @param actorPullRequest GitHub login of the author of pull request
    */
-  public void changeKarmaBasedOnReaction(int numberOfPull) {
-    try {
-      GHRepository repository = service.getGitHubRepository();
-      GHPullRequest currentPr = repository.getPullRequest(numberOfPull);
-
-
-      List<GitHubComment> comments = new ArrayList<>();
-      PagedIterable<GHIssueComment> commentsIssue = currentPr.listComments();
-      comments.addAll(checkForIssueCommentsApproved(commentsIssue));
-      PagedIterable<GHPullRequestReviewComment> commentsReview
-              = currentPr.listReviewComments();
-      comments.addAll(checkForReviewsCommentsApproved(commentsReview));
-      log.info("Total {} comments with approved text added to the {} pull",
-              comments.size(), numberOfPull);
-      String actorPullRequest = currentPr.getUser().getLogin();
-      comments.stream()
-              .collect(Collectors.groupingBy(GitHubComment::getAuthorComment))
-              .values().stream().map(c -> c.get(0))
-              .sorted(Comparator.comparing(GitHubComment::getCreatedAt)).limit(3)
-              .forEach(c -> karmaForReaction(c, actorPullRequest));
-    } catch (IOException e) {
-      log.info("Some happen with connection to Gh", e);
-      throw new RuntimeException(e);
-    }
-  }
-
-  private  List<GitHubComment> checkForIssueCommentsApproved(
-          PagedIterable<GHIssueComment> commentsIssue) throws IOException {
-    List<GHIssueComment> issueCommentList = commentsIssue.asList().stream()
-            .filter(c -> c.getBody().toLowerCase().trim().equals("approved"))
-            .collect(Collectors.toList());
-    List<GitHubComment> comments = new ArrayList<>();
-    for (GHIssueComment issueComment: issueCommentList) {
-      GitHubComment comment = new GitHubComment();
-      comment.setAuthorComment(issueComment.getUser().getLogin());
-      comment.setCreatedAt(issueComment.getCreatedAt());
-      comment.setListOfReaction(issueComment.listReactions());
-      comments.add(comment);
-    }
-    return comments;
-  }
-
-  private List<GitHubComment> checkForReviewsCommentsApproved(
-          PagedIterable<GHPullRequestReviewComment> reviews) throws IOException {
-    List<GHPullRequestReviewComment> reviewCommentsList = reviews.asList().stream()
-            .filter(c -> c.getBody().toLowerCase().trim().equals("approved"))
-            .collect(Collectors.toList());
-    List<GitHubComment> comments = new ArrayList<>();
-    for (GHPullRequestReviewComment reviewComment: reviewCommentsList) {
-      GitHubComment comment = new GitHubComment();
-      comment.setAuthorComment(reviewComment.getUser().getLogin());
-      comment.setCreatedAt(reviewComment.getCreatedAt());
-      comment.setListOfReaction(reviewComment.listReactions());
-      comments.add(comment);
+  public void changeKarmaBasedOnReaction(int numberOfPull, String actorPullRequest) {
+    List<ApprovedComment> recorded = approvedCommentRepository.findAllByPullNumber(numberOfPull);
+    if (recorded.isEmpty()) {
+      recorded = recordApprovedComments(numberOfPull);
     }
-    return comments;
+    List<ApprovedComment> comments = recorded.stream()
+        .collect(Collectors.toMap(ApprovedComment::getAuthor, c -> c,
+            BinaryOperator.minBy(Comparator.comparing(ApprovedComment::getCreatedAt))))
+        .values().stream()
+        .sorted(Comparator.comparing(ApprovedComment::getCreatedAt)).limit(3)
+        .collect(Collectors.toList());
+    log.info("Total {} reviewers with approved comments in the {} pull",
+        comments.size(), numberOfPull);
+    Set<String> mentors = mentorRoster.getGitNicks();
+    comments.forEach(c -> karmaForReaction(c, actorPullRequest, mentors));
   }
 
-  private void karmaForReaction(GitHubComment comment, String actorPullRequest) {
+  private void karmaForReaction(ApprovedComment comment, String actorPullRequest,
+      Set<String> mentors) {
     String typeOfReaction;
     String actorOfReaction;
-    String actorOfComment = comment.getAuthorComment();
+    String actorOfComment = comment.getAuthor();
+    String reason = "reaction to comment " + comment.getCommentId();
     log.info("Author pull request {}", actorPullRequest);
-    PagedIterable<GHReaction> listOfReaction = comment.getListOfReaction();
-    for (GHReaction reaction : listOfReaction) {
-      actorOfReaction = reaction.getUser().getLogin();
-      typeOfReaction = reaction.getContent().getContent();
+    for (JsonNode reaction : fetchReactions(comment)) {
+      actorOfReaction = reaction.path("user").path("login").asText();
+      typeOfReaction = reaction.path("content").asText();
+      String sourceKey = "reaction:" + reaction.path("id").asText();
       log.info("Type of reaction {} added {} to the comment  of the author {}.",
               typeOfReaction, actorOfReaction, actorOfComment);
       if (typeOfReaction.equals("+1") && !actorOfReaction.equals(actorOfComment)) {
         if (actorPullRequest.equals(actorOfReaction)) {
-          changeUserKarma(actorOfComment, 1);
-        } else if (mentorsRepository.findByGitNick(actorOfReaction).isPresent()) {
-          changeUserKarma(actorOfComment, 2);
+          changeUserKarma(actorOfComment, 1, mentors, reason, sourceKey);
+        } else if (mentors.contains(actorOfReaction)) {
+          changeUserKarma(actorOfComment, 2, mentors, reason, sourceKey);
         }
-      } else if (typeOfReaction.equals("-1")
-              && mentorsRepository.findByGitNick(actorOfReaction).isPresent()) {
-        changeUserKarma(actorOfComment, -1);
+      } else if (typeOfReaction.equals("-1") && mentors.contains(actorOfReaction)) {
+        changeUserKarma(actorOfComment, -1, mentors, reason, sourceKey);
+      }
+    }
+  }
+
+  private void changeUserKarma(String traineeReviewer, int amountOfKarma, Set<String> mentors,
+      String reason, String sourceKey) {
+    log.info("Trainee {} gets {} points in karma", traineeReviewer, amountOfKarma);
+    if (!mentors.contains(traineeReviewer)) {
+      scoreLedgerService.addKarma(traineeReviewer, amountOfKarma, reason, sourceKey);
+    }
+  }
+
+  private List<ApprovedComment> recordApprovedComments(int numberOfPull) {
+    List<ApprovedComment> comments = new ArrayList<>();
+    for (String resource : Arrays.asList("issues", "pulls")) {
+      String path = resource + "/" + numberOfPull + "/comments?per_page=100";
+      for (JsonNode comment : fetchAll(path)) {
+        if (comment.path("body").asText().toLowerCase().trim().equals(APPROVED)) {
+          comments.add(new ApprovedComment(comment.path("id").asLong(), numberOfPull,
+              comment.path("user").path("login").asText(),
+              Date.from(Instant.parse(comment.path("created_at").asText())),
+              resource + "/comments"));
+        }
+      }
+    }
+    approvedCommentRepository.saveAll(comments);
+    log.info("{} approved comments of the {} pull recorded from GitHub", comments.size(),
+        numberOfPull);
+    return comments;
+  }
+
+  private List<JsonNode> fetchReactions(ApprovedComment comment) {
+    return fetchAll(comment.getResourcePath() + "/" + comment.getCommentId()
+        + "/reactions?per_page=100");
+  }
+
+  private List<JsonNode> fetchAll(String path) {
+    List<JsonNode> items = new ArrayList<>();
+    for (String page : service.getRepositoryResourcePages(path)) {
+      try {
+        objectMapper.readTree(page).forEach(items::add);
+      } catch (IOException e) {
+        log.info("Some happen with connection to Gh", e);
+        throw new RuntimeException(e);
       }
     }
+    return items;
   }
 }
@@ -0,0 +1,79 @@
+package com.community.tools.service.github;
+
+import com.community.tools.model.Mentors;
+import com.community.tools.service.github.jpa.MentorsRepository;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the mentors table. The roster is an immutable map, which is replaced as a
+ * whole on refresh, so readers need no locks and no database round trips. Mentors are added
+ * to the table outside of the bot, so the roster is reloaded periodically.
+ */
+@Slf4j
+@Component
+public class MentorRoster {
+
+  @Autowired
+  private MentorsRepository mentorsRepository;
+
+  private volatile Map<String, String> slackIdByGitNick;
+
+  /**
+   * Check if the user is a mentor.
+   *
+   * @param gitNick GitHub login
+   * @return true if the user is a mentor
+   */
+  public boolean isMentor(String gitNick) {
+    return gitNick != null && roster().containsKey(gitNick);
+  }
+
+  /**
+   * Get Slack id of the mentor.
+   *
+   * @param gitNick GitHub login of mentor
+   * @return Slack id, empty if the user is not a mentor
+   */
+  public Optional<String> findSlackId(String gitNick) {
+    return gitNick == null ? Optional.empty() : Optional.ofNullable(roster().get(gitNick));
+  }
+
+  public Set<String> getGitNicks() {
+    return roster().keySet();
+  }
+
+  /**
+   * Reload the roster from the mentors table. The current roster is kept, when the table
+   * can't be read.
+   */
+  @Scheduled(fixedDelayString = "${mentors.refresh.millis}")
+  public void refresh() {
+    try {
+      Map<String, String> roster = new HashMap<>();
+      for (Mentors mentor : mentorsRepository.findAll()) {
+        roster.put(mentor.getGitNick(), mentor.getSlackId());
+      }
+      slackIdByGitNick = Collections.unmodifiableMap(roster);
+    } catch (DataAccessException e) {
+      log.warn("Failed to refresh the mentor roster", e);
+    }
+  }
+
+  private Map<String, String> roster() {
+    Map<String, String> roster = slackIdByGitNick;
+    if (roster == null) {
+      refresh();
+      roster = slackIdByGitNick;
+    }
+    return roster == null ? Collections.emptyMap() : roster;
+  }
+}
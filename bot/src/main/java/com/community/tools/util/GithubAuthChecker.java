@@ -3,16 +3,25 @@ package com.community.tools.util;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import javax.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.binary.Hex;
 
+/**
+ * Checker of GitHub webhook signatures. Mac instances are not thread-safe, so every thread
+ * gets its own instances, which are reused for the following checks.
+ */
 @Slf4j
 public final class GithubAuthChecker {
 
   static final String HMAC_SHA1 = "HmacSHA1";
-  final Mac mac;
+  static final String HMAC_SHA256 = "HmacSHA256";
+  static final String SHA1_PREFIX = "sha1=";
+  static final String SHA256_PREFIX = "sha256=";
+
+  private final ThreadLocal<Hasher> sha1;
+  private final ThreadLocal<Hasher> sha256;
 
   /**
    * Constructor of GithubAuthChecker.
@@ -22,30 +31,77 @@ public final class GithubAuthChecker {
    */
   public GithubAuthChecker(String secret)
       throws NoSuchAlgorithmException, InvalidKeyException {
-    mac = Mac.getInstance(HMAC_SHA1);
-    final SecretKeySpec signingKey = new SecretKeySpec(secret.getBytes(), HMAC_SHA1);
-    mac.init(signingKey);
+    byte[] key = secret.getBytes();
+    // fail fast on a bad key instead of on the first hook
+    new Hasher(HMAC_SHA1, key);
+    new Hasher(HMAC_SHA256, key);
+    sha1 = ThreadLocal.withInitial(() -> Hasher.create(HMAC_SHA1, key));
+    sha256 = ThreadLocal.withInitial(() -> Hasher.create(HMAC_SHA256, key));
   }
 
   /**
    * Checks a github signature against its payload.
    *
-   * @param signature A X-Hub-Signature header value ("sha1=[...]")
+   * @param signature A X-Hub-Signature-256 ("sha256=[...]")
+   *                  or X-Hub-Signature ("sha1=[...]") header value
    * @param payload   The signed HTTP request body
    * @return Whether the signature is correct for the checker's secret
    */
-  public boolean checkSignature(String signature, @NotNull String payload) {
-    if (signature == null || signature.length() != 45) {
+  public boolean checkSignature(String signature, @NotNull byte[] payload) {
+    if (signature == null) {
       return false;
     }
+    if (signature.startsWith(SHA256_PREFIX)) {
+      return sha256.get().matches(signature, SHA256_PREFIX.length(), payload);
+    }
+    if (signature.startsWith(SHA1_PREFIX)) {
+      return sha1.get().matches(signature, SHA1_PREFIX.length(), payload);
+    }
+    return false;
+  }
 
-    final char[] hash = Hex.encodeHex(this.mac.doFinal(payload.getBytes()));
+  private static final class Hasher {
 
-    final StringBuilder builder = new StringBuilder("sha1=");
-    builder.append(hash);
-    final String expected = builder.toString();
+    private final Mac mac;
+    private final byte[] digest;
 
-    log.debug("Comparing {} and {}", expected, signature);
-    return expected.equals(signature);
+    private Hasher(String algorithm, byte[] key)
+        throws NoSuchAlgorithmException, InvalidKeyException {
+      mac = Mac.getInstance(algorithm);
+      mac.init(new SecretKeySpec(key, algorithm));
+      digest = new byte[mac.getMacLength()];
+    }
+
+    private static Hasher create(String algorithm, byte[] key) {
+      try {
+        return new Hasher(algorithm, key);
+      } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    /**
+     * Compare the hex digest in the signature with the digest of the payload. All digits
+     * are compared, so the time does not depend on the position of the first difference.
+     */
+    private boolean matches(String signature, int offset, byte[] payload) {
+      if (signature.length() - offset != digest.length * 2) {
+        return false;
+      }
+      try {
+        mac.update(payload);
+        mac.doFinal(digest, 0);
+      } catch (ShortBufferException e) {
+        throw new IllegalStateException(e);
+      }
+      int difference = 0;
+      for (int i = 0; i < digest.length; i++) {
+        int high = Character.digit(signature.charAt(offset + 2 * i), 16);
+        int low = Character.digit(signature.charAt(offset + 2 * i + 1), 16);
+        difference |= (high | low) >>> 31;
+        difference |= ((high << 4 | low) ^ digest[i]) & 0xff;
+      }
+      return difference == 0;
+    }
   }
-}
\ No newline at end of file
+}
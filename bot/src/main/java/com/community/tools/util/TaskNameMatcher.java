@@ -0,0 +1,61 @@
+package com.community.tools.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+/**
+ * Matcher of pull request titles to task names. It is built once from the task list and is
+ * safe to share between threads. The distance is computed only for tasks, whose length is
+ * close enough to the title, and stops as soon as it exceeds the maximum.
+ */
+public final class TaskNameMatcher {
+
+  private final String[] tasks;
+  private final Set<String> exactTasks;
+  private final int maxDistance;
+  private final LevenshteinDistance distance;
+
+  /**
+   * Constructor of TaskNameMatcher.
+   *
+   * @param tasks       task names, earlier tasks win ties
+   * @param maxDistance max number of edits between the title and the task name
+   */
+  public TaskNameMatcher(String[] tasks, int maxDistance) {
+    this.tasks = tasks.clone();
+    this.exactTasks = new HashSet<>(Arrays.asList(tasks));
+    this.maxDistance = maxDistance;
+    this.distance = new LevenshteinDistance(maxDistance);
+  }
+
+  /**
+   * Find the task name closest to the title.
+   *
+   * @param title title of pull request
+   * @return task name, empty if no task is within the max distance
+   */
+  public Optional<String> match(String title) {
+    if (title == null) {
+      return Optional.empty();
+    }
+    if (exactTasks.contains(title)) {
+      return Optional.of(title);
+    }
+    String best = null;
+    int bestDistance = maxDistance + 1;
+    for (String task : tasks) {
+      if (Math.abs(task.length() - title.length()) >= bestDistance) {
+        continue;
+      }
+      int current = distance.apply(task, title);
+      if (current >= 0 && current < bestDistance) {
+        best = task;
+        bestDistance = current;
+      }
+    }
+    return Optional.ofNullable(best);
+  }
+}
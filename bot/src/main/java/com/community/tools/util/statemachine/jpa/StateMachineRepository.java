@@ -1,10 +1,21 @@
 package com.community.tools.util.statemachine.jpa;
 
+import com.community.tools.model.Event;
+import com.community.tools.model.ScoreType;
 import com.community.tools.model.User;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface StateMachineRepository extends JpaRepository<User, Long> {
@@ -12,4 +23,100 @@ public interface StateMachineRepository extends JpaRepository<User, Long> {
   Optional<User> findByUserID(String userID);
 
   Optional<User> findByGitName(String gitName);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select u from User u where u.gitName = :gitName")
+  Optional<User> findByGitNameForUpdate(@Param("gitName") String gitName);
+
+  List<User> findAllByGitNameIn(Collection<String> gitNames);
+
+  // keyset pages compare (score, userid) as a row value, so the expression indexes of
+  // StateEntityLeaderboardIndexes.ddl serve both the condition and the order
+  @Query(value = "SELECT * FROM state_entity"
+      + " WHERE (coalesce(karma, 0) + coalesce(point_by_task, 0), userid) < (:score, :userId)"
+      + " ORDER BY coalesce(karma, 0) + coalesce(point_by_task, 0) DESC, userid DESC"
+      + " LIMIT :limit", nativeQuery = true)
+  List<User> findPageByTotalPoints(@Param("score") int score, @Param("userId") String userId,
+      @Param("limit") int limit);
+
+  @Query(value = "SELECT * FROM state_entity WHERE last_activity_at > :since"
+      + " AND (coalesce(karma, 0) + coalesce(point_by_task, 0), userid) < (:score, :userId)"
+      + " ORDER BY coalesce(karma, 0) + coalesce(point_by_task, 0) DESC, userid DESC"
+      + " LIMIT :limit", nativeQuery = true)
+  List<User> findActivePageByTotalPoints(@Param("since") Date since, @Param("score") int score,
+      @Param("userId") String userId, @Param("limit") int limit);
+
+  @Query(value = "SELECT * FROM state_entity"
+      + " WHERE (coalesce(completed_tasks, 0), userid) < (:score, :userId)"
+      + " ORDER BY coalesce(completed_tasks, 0) DESC, userid DESC"
+      + " LIMIT :limit", nativeQuery = true)
+  List<User> findPageByCompletedTasks(@Param("score") int score,
+      @Param("userId") String userId, @Param("limit") int limit);
+
+  @Query(value = "SELECT * FROM state_entity WHERE last_activity_at > :since"
+      + " AND (coalesce(completed_tasks, 0), userid) < (:score, :userId)"
+      + " ORDER BY coalesce(completed_tasks, 0) DESC, userid DESC"
+      + " LIMIT :limit", nativeQuery = true)
+  List<User> findActivePageByCompletedTasks(@Param("since") Date since,
+      @Param("score") int score, @Param("userId") String userId, @Param("limit") int limit);
+
+  @Query("select u.userID, t.taskName, t.taskStatus from User u join u.taskStatuses t"
+      + " where u.userID in :userIds")
+  List<Object[]> findTaskStatusesOfUsers(@Param("userIds") Collection<String> userIds);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.lastActivityAt = :date where u.gitName = :gitName"
+      + " and (u.lastActivityAt is null or u.lastActivityAt < :date)")
+  int updateLastActivityAt(@Param("gitName") String gitName, @Param("date") Date date);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.lastActivityAt = (select max(e.createdAt) from GitHubEvent e"
+      + " where e.actorLogin = u.gitName and e.type = :type)"
+      + " where exists (select e.eventKey from GitHubEvent e where e.actorLogin = u.gitName"
+      + " and e.type = :type and (u.lastActivityAt is null or e.createdAt > u.lastActivityAt))")
+  int backfillLastActivityAt(@Param("type") Event type);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.karma = coalesce(u.karma, 0) + :amount"
+      + " where u.gitName = :gitName")
+  int addKarma(@Param("gitName") String gitName, @Param("amount") int amount);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.pointByTask = coalesce(u.pointByTask, 0) + :amount"
+      + " where u.gitName = :gitName")
+  int addPointByTask(@Param("gitName") String gitName, @Param("amount") int amount);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.karma = (select coalesce(sum(e.amount), 0) from ScoreEntry e"
+      + " where e.gitName = u.gitName and e.type = :type)")
+  int recomputeKarma(@Param("type") ScoreType type);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.pointByTask = (select coalesce(sum(e.amount), 0)"
+      + " from ScoreEntry e where e.gitName = u.gitName and e.type = :type)")
+  int recomputePointByTask(@Param("type") ScoreType type);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.completedTasks = coalesce(u.completedTasks, 0) + :delta"
+      + " where u.userID = :userId")
+  int addCompletedTasks(@Param("userId") String userId, @Param("delta") int delta);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.completedTasks = :completedTasks where u.userID = :userId")
+  int setCompletedTasks(@Param("userId") String userId,
+      @Param("completedTasks") int completedTasks);
+
+  @Transactional
+  @Modifying
+  @Query("update User u set u.completedTasks = (select count(t) from TaskStatus t"
+      + " where t.user = u and t.taskStatus = :done)")
+  int recomputeCompletedTasks(@Param("done") String done);
 }
@@ -0,0 +1,96 @@
+package com.community.tools.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.model.GitHubHookEvent;
+import com.community.tools.service.github.GitHookDataService;
+import com.community.tools.service.github.GitHubDeliveryService;
+import com.community.tools.service.github.GitHubHookEventParser;
+import com.community.tools.service.github.GitHubHookPipeline;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHubHookControllerTest {
+
+  private static final String SECRET = "secret";
+  private static final byte[] BODY = "{\"action\":\"opened\"}".getBytes(StandardCharsets.UTF_8);
+
+  @InjectMocks
+  private GitHubHookController controller;
+  @Mock
+  private GitHubHookPipeline gitHubHookPipeline;
+  @Mock
+  private GitHookDataService gitHookDataService;
+  @Mock
+  private GitHubHookEventParser gitHubHookEventParser;
+  @Mock
+  private GitHubDeliveryService gitHubDeliveryService;
+
+  @BeforeEach
+  void init() throws GeneralSecurityException {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(controller, "secret", SECRET);
+    controller.initAuthChecker();
+    when(gitHubDeliveryService.markReceived("1")).thenReturn(true);
+    GitHubHookEvent event = new GitHubHookEvent();
+    event.setAction("opened");
+    when(gitHubHookEventParser.parse("pull_request", BODY)).thenReturn(event);
+  }
+
+  @Test
+  void queuedDeliveryIsKept() throws GeneralSecurityException {
+    when(gitHubHookPipeline.submit(any())).thenReturn(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    controller.getHookData(BODY, null, sign(), "pull_request", "1", response);
+
+    assertEquals(200, response.getStatus());
+    verify(gitHubDeliveryService, never()).forget("1");
+  }
+
+  @Test
+  void deliveryIsForgottenWhenQueueIsFull() throws GeneralSecurityException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    controller.getHookData(BODY, null, sign(), "pull_request", "1", response);
+
+    assertEquals(503, response.getStatus());
+    verify(gitHubDeliveryService).forget("1");
+  }
+
+  @Test
+  void deliveryIsForgottenWhenSaveFails() throws GeneralSecurityException {
+    doThrow(new IllegalStateException("down"))
+        .when(gitHookDataService).saveDataIntoDB("pull_request", BODY);
+    String signature = sign();
+
+    assertThrows(IllegalStateException.class, () -> controller.getHookData(BODY, null,
+        signature, "pull_request", "1", new MockHttpServletResponse()));
+    verify(gitHubDeliveryService).forget("1");
+  }
+
+  private String sign() throws GeneralSecurityException {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    StringBuilder signature = new StringBuilder("sha256=");
+    for (byte b : mac.doFinal(BODY)) {
+      signature.append(String.format("%02x", b));
+    }
+    return signature.toString();
+  }
+}
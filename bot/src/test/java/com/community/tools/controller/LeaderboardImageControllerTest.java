@@ -0,0 +1,73 @@
+package com.community.tools.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.service.LeaderboardImageService;
+import com.community.tools.service.LeaderboardImageService.CachedImage;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class LeaderboardImageControllerTest {
+
+  private final LocalDate yesterday = LocalDate.now().minusDays(1);
+
+  @InjectMocks
+  private LeaderboardImageController controller;
+  @Mock
+  private LeaderboardImageService leaderboardImageService;
+
+  @BeforeEach
+  void init() {
+    MockitoAnnotations.initMocks(this);
+    when(leaderboardImageService.hasImage(yesterday)).thenReturn(true);
+    when(leaderboardImageService.isFinal(yesterday)).thenReturn(true);
+  }
+
+  @Test
+  void dayWithoutSnapshotIsNotFound() {
+    LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    ResponseEntity<byte[]> response = controller.getTaskStatusImage(tomorrow, request());
+
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    verify(leaderboardImageService, never()).getTaskStatusImage(tomorrow);
+  }
+
+  @Test
+  void historicalPastImageIsImmutable() {
+    when(leaderboardImageService.getTaskStatusImage(yesterday))
+        .thenReturn(new CachedImage(1, true, new byte[] {1}, "\"1\""));
+
+    ResponseEntity<byte[]> response = controller.getTaskStatusImage(yesterday, request());
+
+    assertEquals("public, max-age=31536000, immutable",
+        response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+  }
+
+  @Test
+  void pastImageOfCurrentStatusesIsNotImmutable() {
+    when(leaderboardImageService.getTaskStatusImage(yesterday))
+        .thenReturn(new CachedImage(-1, false, new byte[] {1}, "\"1\""));
+
+    ResponseEntity<byte[]> response = controller.getTaskStatusImage(yesterday, request());
+
+    assertEquals("max-age=300, public",
+        response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL));
+  }
+
+  private ServletWebRequest request() {
+    return new ServletWebRequest(new MockHttpServletRequest());
+  }
+}
@@ -0,0 +1,43 @@
+package com.community.tools.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.community.tools.model.Event;
+import com.community.tools.model.GitHubEvent;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@TestPropertySource(locations = "/application-test.properties", properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class GitHubEventRepositoryTest {
+
+  @Autowired
+  private GitHubEventRepository eventRepository;
+
+  @Test
+  void eventsAreOrderedByTimeThenByKey() {
+    Date first = new Date(1_000_000);
+    Date second = new Date(2_000_000);
+    eventRepository.saveAll(Arrays.asList(
+        new GitHubEvent("pr-created:1", second, "roman", Event.PULL_REQUEST_CREATED, 1),
+        new GitHubEvent("comment:2", second, "Ilona", Event.COMMENT, 1),
+        new GitHubEvent("comment:1", second, "roman", Event.COMMENT, 1),
+        new GitHubEvent("commit:1:abc", first, "roman", Event.COMMIT, 1),
+        new GitHubEvent("comment:0", new Date(5_000_000), "roman", Event.COMMENT, 1)));
+
+    List<String> keys = eventRepository
+        .findAllByCreatedAtAfterAndCreatedAtBeforeOrderByCreatedAtAscEventKeyAsc(
+            new Date(0), new Date(3_000_000))
+        .stream().map(GitHubEvent::getEventKey).collect(Collectors.toList());
+
+    assertEquals(Arrays.asList("commit:1:abc", "comment:1", "comment:2", "pr-created:1"), keys);
+  }
+}
@@ -0,0 +1,60 @@
+package com.community.tools.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import com.community.tools.model.User;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class LeaderBoardServiceTest {
+
+  @InjectMocks
+  private LeaderBoardService leaderBoardService;
+
+  @Mock
+  private StateMachineRepository stateMachineRepository;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  void nextPageStartsAfterCursorOfLastUser() {
+    User last = new User();
+    last.setUserID("U7");
+    last.setKarma(3);
+    last.setPointByTask(9);
+    String cursor = leaderBoardService.getCursor(last, "points");
+
+    leaderBoardService.getUsersPage(10, null, "points", cursor);
+
+    assertEquals("12:U7", cursor);
+    verify(stateMachineRepository).findPageByTotalPoints(12, "U7", 10);
+  }
+
+  @Test
+  void activeUsersArePagedByTheirOwnQuery() {
+    leaderBoardService.getUsersPage(null, 7, null, null);
+
+    verify(stateMachineRepository).findActivePageByCompletedTasks(any(Date.class),
+        eq(Integer.MAX_VALUE), eq(""), eq(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void malformedCursorIsRejected() {
+    assertThrows(IllegalArgumentException.class,
+        () -> leaderBoardService.getUsersPage(10, null, null, "U7"));
+    assertThrows(IllegalArgumentException.class,
+        () -> leaderBoardService.getUsersPage(10, null, null, "x:U7"));
+  }
+}
@@ -0,0 +1,100 @@
+package com.community.tools.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.service.LeaderboardImageService.CachedImage;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LeaderboardImageServiceTest {
+
+  private final LeaderboardImageService imageCache = new LeaderboardImageService();
+  private final ImageService imageService = mock(ImageService.class);
+  private final LeaderboardSnapshotService snapshotService =
+      mock(LeaderboardSnapshotService.class);
+
+  @BeforeEach
+  void init() {
+    ReflectionTestUtils.setField(imageCache, "cacheSize", 2);
+    ReflectionTestUtils.setField(imageCache, "imageService", imageService);
+    ReflectionTestUtils.setField(imageCache, "leaderboardSnapshotService", snapshotService);
+    ReflectionTestUtils.setField(imageCache, "taskStatusMatrixService",
+        mock(TaskStatusMatrixService.class));
+    imageCache.start();
+    when(imageService.getLeaderboardTemplate(any(), any()))
+        .thenReturn("<html></html>");
+    when(imageService.getTaskStatusTemplate(any(), any()))
+        .thenReturn("<html></html>");
+    when(imageService.createImage(anyString()))
+        .thenReturn(new byte[] {1}, new byte[] {2}, new byte[] {3});
+  }
+
+  @AfterEach
+  void stop() {
+    imageCache.stop();
+  }
+
+  @Test
+  void currentImageIsRenderedAgainForNewVersion() {
+    LocalDate today = LocalDate.now();
+    when(snapshotService.getVersion()).thenReturn(1L, 1L, 2L);
+
+    CachedImage first = imageCache.getLeaderboardImage(today);
+    CachedImage cached = imageCache.getLeaderboardImage(today);
+    CachedImage rendered = imageCache.getLeaderboardImage(today);
+
+    assertSame(first, cached);
+    assertEquals(2, rendered.getVersion());
+    assertNotEquals(first.getEtag(), rendered.getEtag());
+    verify(imageService, times(2)).createImage(anyString());
+  }
+
+  @Test
+  void pastImageIsRenderedOnce() {
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    when(snapshotService.getVersion()).thenReturn(1L, 2L);
+
+    CachedImage first = imageCache.getLeaderboardImage(yesterday);
+    CachedImage cached = imageCache.getLeaderboardImage(yesterday);
+
+    assertSame(first, cached);
+    verify(imageService, times(1)).createImage(anyString());
+  }
+
+  @Test
+  void leastRecentlyUsedImageIsEvicted() {
+    LocalDate day = LocalDate.now().minusDays(10);
+
+    imageCache.getLeaderboardImage(day);
+    imageCache.getLeaderboardImage(day.plusDays(1));
+    imageCache.getLeaderboardImage(day);
+    imageCache.getLeaderboardImage(day.plusDays(2));
+    imageCache.getLeaderboardImage(day);
+    imageCache.getLeaderboardImage(day.plusDays(1));
+
+    verify(imageService, times(4)).createImage(anyString());
+  }
+
+  @Test
+  void taskStatusImageIsHistoricalOnlyWhenRenderedDuringTheDay() {
+    LocalDate today = LocalDate.now();
+    LocalDate yesterday = today.minusDays(1);
+
+    assertTrue(imageCache.getTaskStatusImage(today).isHistorical());
+    assertFalse(imageCache.getTaskStatusImage(yesterday).isHistorical());
+    assertTrue(imageCache.getLeaderboardImage(yesterday).isHistorical());
+  }
+}
@@ -0,0 +1,122 @@
+package com.community.tools.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class LeaderboardSnapshotServiceTest {
+
+  private final LeaderboardSnapshotService snapshotService = new LeaderboardSnapshotService();
+  private final JdbcTemplate connection = mock(JdbcTemplate.class);
+  private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+  @BeforeEach
+  void init() {
+    ReflectionTestUtils.setField(snapshotService, "connection", connection);
+    ReflectionTestUtils.setField(snapshotService, "transactionTemplate",
+        new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    ReflectionTestUtils.setField(snapshotService, "activeDays", 30);
+    ReflectionTestUtils.setField(snapshotService, "eventPublisher", eventPublisher);
+  }
+
+  @Test
+  void snapshotIsRebuiltOnlyAfterChanges() {
+    snapshotService.refreshIfChanged();
+    snapshotService.refreshIfChanged();
+    snapshotService.markChanged();
+    snapshotService.refreshIfChanged();
+
+    verify(connection, times(2)).update(startsWith("INSERT INTO leaderboard_snapshot"),
+        any(Date.class), any(Timestamp.class));
+  }
+
+  @Test
+  void failedRebuildIsRetried() {
+    when(connection.update(anyString(), any(Date.class), any(Timestamp.class)))
+        .thenThrow(new DataAccessResourceFailureException("down"))
+        .thenReturn(5);
+
+    snapshotService.refreshIfChanged();
+    snapshotService.refreshIfChanged();
+    snapshotService.refreshIfChanged();
+
+    verify(connection, times(2)).update(startsWith("INSERT INTO leaderboard_snapshot"),
+        any(Date.class), any(Timestamp.class));
+    verify(eventPublisher, times(1)).publishEvent(any(LeaderboardSnapshotEvent.class));
+    assertEquals(1, snapshotService.getVersion());
+  }
+
+  @Test
+  void changeInTransactionIsMarkedAfterCommit() {
+    snapshotService.refreshIfChanged();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      snapshotService.markChanged();
+      snapshotService.refreshIfChanged();
+      verify(connection, times(1)).update(startsWith("INSERT INTO leaderboard_snapshot"),
+          any(Date.class), any(Timestamp.class));
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    snapshotService.refreshIfChanged();
+
+    verify(connection, times(2)).update(startsWith("INSERT INTO leaderboard_snapshot"),
+        any(Date.class), any(Timestamp.class));
+  }
+
+  @Test
+  void rolledBackChangeIsNotMarked() {
+    snapshotService.refreshIfChanged();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      snapshotService.markChanged();
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    snapshotService.refreshIfChanged();
+
+    verify(connection, times(1)).update(startsWith("INSERT INTO leaderboard_snapshot"),
+        any(Date.class), any(Timestamp.class));
+  }
+
+  @Test
+  void daysWithoutSnapshotAreDetected() {
+    LocalDate today = LocalDate.now();
+    when(connection.queryForObject(startsWith("SELECT min(snapshot_date)"), eq(Date.class)))
+        .thenReturn(null, Date.valueOf(today.minusDays(3)));
+
+    assertFalse(snapshotService.hasSnapshot(today));
+    assertTrue(snapshotService.hasSnapshot(today));
+    assertTrue(snapshotService.hasSnapshot(today.minusDays(3)));
+    assertFalse(snapshotService.hasSnapshot(today.minusDays(4)));
+    assertFalse(snapshotService.hasSnapshot(today.plusDays(1)));
+    verify(connection, times(2)).queryForObject(anyString(), eq(Date.class));
+  }
+}
@@ -1,12 +1,13 @@
 package com.community.tools.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.community.tools.model.Mentors;
 import com.community.tools.model.User;
-import com.community.tools.service.github.jpa.MentorsRepository;
+import com.community.tools.service.github.MentorRoster;
 import com.community.tools.util.statemachine.Event;
 import com.community.tools.util.statemachine.State;
 import com.community.tools.util.statemachine.jpa.StateMachineRepository;
@@ -44,11 +45,14 @@ class PointsTaskServiceTest {
   StateMachineService stateMachineService;
 
   @Mock
-  MentorsRepository mentorsRepository;
+  MentorRoster mentorRoster;
 
   @Mock
   StateMachineRepository stateMachineRepository;
 
+  @Mock
+  ScoreLedgerService scoreLedgerService;
+
   @Mock
   StateMachine<State, Event> machine;
   @Mock
@@ -71,8 +75,6 @@ class PointsTaskServiceTest {
   @Test
   public void addPointForCompletedTaskTest() {
 
-    Mentors mentors = mock(Mentors.class);
-    when(mentors.getGitNick()).thenReturn("test");
     User stateEntity =  new User();
     stateEntity.setUserID("Olena Haladzhii");
     stateEntity.setPointByTask(5);
@@ -82,13 +84,13 @@ class PointsTaskServiceTest {
     mockData.put("taskDone", 4);
     when(machine.getExtendedState()).thenReturn(extendedState);
     when(extendedState.getVariables()).thenReturn(mockData);
-    when(mentorsRepository.findByGitNick("test")).thenReturn(Optional.of(mentors));
+    when(mentorRoster.isMentor("test")).thenReturn(true);
     when(stateMachineRepository.findByGitName("marvintik")).thenReturn(Optional.of(stateEntity));
 
 
-    pointsTaskService.addPointForCompletedTask("test", "marvintik", " valueref_test ");
-    pointsTaskService.addPointForCompletedTask("rest", "marvintik", " valueref_test ");
-    assertEquals(8, stateEntity.getPointByTask());
+    pointsTaskService.addPointForCompletedTask("test", "marvintik", " valueref_test ", 1);
+    pointsTaskService.addPointForCompletedTask("rest", "marvintik", " valueref_test ", 1);
+    verify(scoreLedgerService).addPoints(eq("marvintik"), eq(3), anyString(), eq("pull:1:done"));
   }
 
   @Test
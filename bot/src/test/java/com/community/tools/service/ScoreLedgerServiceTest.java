@@ -0,0 +1,57 @@
+package com.community.tools.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.repository.ScoreLedgerRepository;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class ScoreLedgerServiceTest {
+
+  @InjectMocks
+  private ScoreLedgerService scoreLedgerService;
+  @Mock
+  private ScoreLedgerRepository scoreLedgerRepository;
+  @Mock
+  private StateMachineRepository stateMachineRepository;
+  @Mock
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  void sourceKeyIsScoredOnce() {
+    when(scoreLedgerRepository.appendOnce("trainee", "KARMA", 2, "reaction", "reaction:1"))
+        .thenReturn(1, 0);
+
+    assertTrue(scoreLedgerService.addKarma("trainee", 2, "reaction", "reaction:1"));
+    assertFalse(scoreLedgerService.addKarma("trainee", 2, "reaction", "reaction:1"));
+
+    verify(stateMachineRepository, times(1)).addKarma("trainee", 2);
+    verify(leaderboardSnapshotService, times(1)).markChanged();
+  }
+
+  @Test
+  void unknownUserIsNotScored() {
+    when(scoreLedgerRepository.appendOnce(anyString(), anyString(), anyInt(), anyString(),
+        anyString())).thenReturn(0);
+
+    assertFalse(scoreLedgerService.addPoints("stranger", 3, "done", "pull:1:done"));
+
+    verify(stateMachineRepository, never()).addPointByTask(anyString(), anyInt());
+  }
+}
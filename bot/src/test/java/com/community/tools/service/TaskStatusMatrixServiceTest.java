@@ -0,0 +1,162 @@
+package com.community.tools.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.dto.TaskStatusMatrixDto;
+import com.community.tools.model.User;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TaskStatusMatrixServiceTest {
+
+  @InjectMocks
+  private TaskStatusMatrixService taskStatusMatrixService;
+
+  @Mock
+  private StateMachineRepository stateMachineRepository;
+  @Mock
+  private MessageService messageService;
+  @Mock
+  private LeaderBoardService leaderBoardService;
+  @Mock
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  @BeforeEach
+  void init() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(taskStatusMatrixService, "tasksForUsers",
+        new String[] {"checkstyle", "inner.classes", "gc"});
+    ReflectionTestUtils.setField(taskStatusMatrixService, "cacheSize", 2);
+    taskStatusMatrixService.start();
+    when(leaderBoardService.getUsersPage(any(), any(), any(), any())).thenReturn(Arrays.asList(
+        user("U2", "second", 2), user("U1", "first", 1), user("U3", "third", null)));
+    when(stateMachineRepository.findTaskStatusesOfUsers(anyCollection())).thenReturn(
+        Arrays.asList(
+            new Object[] {"U1", "checkstyle", "done"},
+            new Object[] {"U1", "inner/classes", "pull request"},
+            new Object[] {"U2", "gc", "done"}));
+    when(messageService.getIdWithName()).thenReturn(Collections.singletonMap("U1", "First"));
+  }
+
+  @Test
+  void statusesAreCodedByTaskColumns() {
+    TaskStatusMatrixDto matrix = taskStatusMatrixService.getMatrix(null, null, null);
+
+    assertEquals(Arrays.asList("done", "pull request"), matrix.getStatuses());
+    assertEquals(3, matrix.getUsers().size());
+    assertEquals("second", matrix.getUsers().get(0).getGitName());
+    assertArrayEquals(new int[] {-1, -1, 0}, matrix.getUsers().get(0).getTaskStatuses());
+    assertEquals("First", matrix.getUsers().get(1).getPlatformName());
+    assertArrayEquals(new int[] {0, 1, -1}, matrix.getUsers().get(1).getTaskStatuses());
+    assertEquals(0, matrix.getUsers().get(2).getCompletedTasks());
+  }
+
+  @Test
+  void statusesAreReadOnlyForSelectedUsers() {
+    taskStatusMatrixService.getMatrix(3, 7, "points");
+
+    verify(leaderBoardService).getUsersPage(3, 7, "points", null);
+    verify(stateMachineRepository).findTaskStatusesOfUsers(
+        new HashSet<>(Arrays.asList("U1", "U2", "U3")));
+  }
+
+  @Test
+  void noStatusesAreReadWithoutUsers() {
+    when(leaderBoardService.getUsersPage(any(), any(), any(), any()))
+        .thenReturn(Collections.emptyList());
+
+    assertEquals(0, taskStatusMatrixService.getMatrix(1, 7, null).getUsers().size());
+    verify(stateMachineRepository, never()).findTaskStatusesOfUsers(anyCollection());
+  }
+
+  @Test
+  void matrixIsBuiltAgainForNewVersion() {
+    when(leaderboardSnapshotService.getVersion()).thenReturn(1L, 1L, 1L, 1L, 2L, 2L);
+
+    String etag = taskStatusMatrixService.getEtag(1, null, null);
+    TaskStatusMatrixDto first = taskStatusMatrixService.getCachedMatrix(1, null, null);
+    assertEquals(etag, taskStatusMatrixService.getEtag(1, null, null));
+    assertSame(first, taskStatusMatrixService.getCachedMatrix(1, null, null));
+    assertNotEquals(etag, taskStatusMatrixService.getEtag(1, null, null));
+    assertNotSame(first, taskStatusMatrixService.getCachedMatrix(1, null, null));
+
+    verify(stateMachineRepository, times(2)).findTaskStatusesOfUsers(anyCollection());
+  }
+
+  @Test
+  void concurrentRequestsBuildMatrixOnce() throws Exception {
+    CountDownLatch building = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(messageService.getIdWithName()).thenAnswer(invocation -> {
+      building.countDown();
+      release.await();
+      return Collections.emptyMap();
+    });
+    ExecutorService requests = Executors.newFixedThreadPool(2);
+    try {
+      final Future<TaskStatusMatrixDto> first = requests.submit(
+          () -> taskStatusMatrixService.getCachedMatrix(1, null, null));
+      building.await();
+      Future<TaskStatusMatrixDto> second = requests.submit(
+          () -> taskStatusMatrixService.getCachedMatrix(1, null, null));
+      Thread.sleep(100);
+      release.countDown();
+
+      assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+      verify(leaderBoardService, times(1)).getUsersPage(any(), any(), any(), any());
+    } finally {
+      requests.shutdownNow();
+    }
+  }
+
+  @Test
+  void failedBuildIsNotCached() {
+    when(leaderBoardService.getUsersPage(any(), any(), any(), any()))
+        .thenThrow(new IllegalStateException("db down"))
+        .thenReturn(Collections.emptyList());
+
+    assertThrows(IllegalStateException.class,
+        () -> taskStatusMatrixService.getCachedMatrix(1, null, null));
+    assertEquals(0, taskStatusMatrixService.getCachedMatrix(1, null, null).getUsers().size());
+  }
+
+  @Test
+  void etagDependsOnQuery() {
+    assertNotEquals(taskStatusMatrixService.getEtag(1, null, null),
+        taskStatusMatrixService.getEtag(2, null, null));
+    assertNotEquals(taskStatusMatrixService.getEtag(1, null, null),
+        taskStatusMatrixService.getEtag(1, null, "points"));
+  }
+
+  private User user(String userId, String gitName, Integer completedTasks) {
+    User user = new User();
+    user.setUserID(userId);
+    user.setGitName(gitName);
+    user.setCompletedTasks(completedTasks);
+    return user;
+  }
+}
@@ -0,0 +1,155 @@
+package com.community.tools.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.model.TaskStatus;
+import com.community.tools.model.User;
+import com.community.tools.repository.TaskStatusRepository;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHUser;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TaskStatusServiceTest {
+
+  @InjectMocks
+  private TaskStatusService taskStatusService;
+
+  @Mock
+  private PullRequestsService pullRequestsService;
+  @Mock
+  private TaskStatusRepository taskStatusRepository;
+  @Mock
+  private StateMachineRepository stateMachineRepository;
+  @Mock
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  private final JdbcTemplate connection = mock(JdbcTemplate.class);
+
+  @BeforeEach
+  void init() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(taskStatusService, "connection", connection);
+    ReflectionTestUtils.setField(taskStatusService, "tasksForUsers",
+        new String[] {"checkstyle", "boxing", "gc"});
+    taskStatusService.initTaskNameMatcher();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void onlyChangedTaskStatusesAreWritten() throws IOException {
+    User user = new User();
+    user.setUserID("U1");
+    user.setGitName("trainee");
+    user.setCompletedTasks(1);
+    TaskStatus checkstyle = taskStatus(1L, user, "checkstyle", "done");
+    TaskStatus boxing = taskStatus(2L, user, "boxing", "ready for review");
+    GHPullRequest checkstylePull = pull("trainee", "checkstyle", "done");
+    GHPullRequest boxingPull = pull("trainee", "boxing", "done");
+    GHPullRequest gcPull = pull("trainee", "gc", "pull request");
+    when(stateMachineRepository.findAllByGitNameIn(Collections.singleton("trainee")))
+        .thenReturn(Collections.singletonList(user));
+    when(taskStatusRepository.findAllByUserIn(Collections.singletonList(user)))
+        .thenReturn(Arrays.asList(checkstyle, boxing));
+
+    taskStatusService.cleanBootTasksStatus(Arrays.asList(checkstylePull, boxingPull, gcPull));
+
+    ArgumentCaptor<List<Object[]>> inserts = ArgumentCaptor.forClass(List.class);
+    verify(connection).batchUpdate(startsWith("INSERT INTO task_status"), inserts.capture());
+    assertEquals(1, inserts.getValue().size());
+    assertEquals("gc", inserts.getValue().get(0)[0]);
+    ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+    verify(connection).batchUpdate(startsWith("UPDATE task_status"), updates.capture());
+    assertEquals(1, updates.getValue().size());
+    assertEquals(2L, updates.getValue().get(0)[2]);
+    ArgumentCaptor<List<Object[]>> completed = ArgumentCaptor.forClass(List.class);
+    verify(connection).batchUpdate(startsWith("UPDATE state_entity"), completed.capture());
+    assertArrayEquals(new Object[] {2, "U1"}, completed.getValue().get(0));
+  }
+
+  @Test
+  void pullRequestsOfUnknownUsersAreSkipped() throws IOException {
+    when(stateMachineRepository.findAllByGitNameIn(Collections.singleton("stranger")))
+        .thenReturn(Collections.emptyList());
+
+    taskStatusService.cleanBootTasksStatus(
+        Collections.singletonList(pull("stranger", "gc", "done")));
+
+    verify(connection, never()).batchUpdate(anyString(), anyList());
+  }
+
+  @Test
+  void completedTasksChangeWhenStatusMovesOutOfDone() {
+    User user = new User();
+    user.setUserID("U1");
+    user.setCompletedTasks(2);
+    TaskStatus gc = taskStatus(1L, user, "gc", "done");
+    when(stateMachineRepository.findByGitNameForUpdate("trainee")).thenReturn(Optional.of(user));
+    when(taskStatusRepository.findTaskStatusByUserAndTaskName(user, "gc"))
+        .thenReturn(Optional.of(gc));
+
+    taskStatusService.setTaskStatus("trainee", "gc", "changes requested");
+    taskStatusService.setTaskStatus("trainee", "gc", "changes requested");
+
+    verify(stateMachineRepository, times(1)).addCompletedTasks("U1", -1);
+    verify(leaderboardSnapshotService, times(1)).markChanged();
+    verify(taskStatusRepository, never()).countByUserAndTaskStatus(any(), anyString());
+  }
+
+  @Test
+  void missingCompletedTasksAreCountedInDatabase() {
+    User user = new User();
+    user.setUserID("U1");
+    when(stateMachineRepository.findByGitNameForUpdate("trainee")).thenReturn(Optional.of(user));
+    when(taskStatusRepository.findTaskStatusByUserAndTaskName(user, "gc"))
+        .thenReturn(Optional.empty());
+    when(taskStatusRepository.countByUserAndTaskStatus(user, "done")).thenReturn(3L);
+
+    taskStatusService.setTaskStatus("trainee", "gc", "done");
+
+    verify(stateMachineRepository).setCompletedTasks("U1", 3);
+    verify(stateMachineRepository, never()).addCompletedTasks(anyString(), anyInt());
+  }
+
+  private TaskStatus taskStatus(Long id, User user, String task, String status) {
+    TaskStatus taskStatus = new TaskStatus();
+    taskStatus.setTaskStatusID(id);
+    taskStatus.setUser(user);
+    taskStatus.setTaskName(task);
+    taskStatus.setTaskStatus(status);
+    return taskStatus;
+  }
+
+  private GHPullRequest pull(String gitName, String title, String label) throws IOException {
+    GHUser user = mock(GHUser.class);
+    when(user.getLogin()).thenReturn(gitName);
+    GHPullRequest pull = mock(GHPullRequest.class);
+    when(pull.getUser()).thenReturn(user);
+    when(pull.getTitle()).thenReturn(title);
+    when(pullRequestsService.getLastLabel(pull)).thenReturn(label);
+    return pull;
+  }
+}
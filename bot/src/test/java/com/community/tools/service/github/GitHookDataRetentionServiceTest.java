@@ -0,0 +1,79 @@
+package com.community.tools.service.github;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHookDataRetentionServiceTest {
+
+  private final GitHookDataRetentionService retentionService =
+      new GitHookDataRetentionService();
+  private final JdbcTemplate connection = mock(JdbcTemplate.class);
+  private final YearMonth current = YearMonth.now(ZoneOffset.UTC);
+
+  @BeforeEach
+  void init() {
+    GitHubHookService gitHubHookService = mock(GitHubHookService.class);
+    when(gitHubHookService.getRoutedEventTypes())
+        .thenReturn(Collections.singleton("pull_request"));
+    ReflectionTestUtils.setField(retentionService, "connection", connection);
+    ReflectionTestUtils.setField(retentionService, "gitHubHookService", gitHubHookService);
+    ReflectionTestUtils.setField(retentionService, "monthsAhead", 1);
+    ReflectionTestUtils.setField(retentionService, "retentionMonths", 12);
+    ReflectionTestUtils.setField(retentionService, "compactionMonths", 3);
+  }
+
+  @Test
+  void onlyPartitionsWithoutMarkAreCompacted() throws Exception {
+    String compacted = partition(5);
+    String notCompacted = partition(4);
+    String expired = partition(13);
+    doAnswer(invocation -> {
+      RowCallbackHandler handler = invocation.getArgument(1);
+      handler.processRow(row(compacted, "compacted"));
+      handler.processRow(row(notCompacted, null));
+      handler.processRow(row(expired, "compacted"));
+      return null;
+    }).when(connection).query(anyString(), any(RowCallbackHandler.class));
+
+    retentionService.maintainPartitions();
+
+    verify(connection).update(eq("DELETE FROM public.\"" + notCompacted + "\""
+        + " WHERE event IS NULL OR event NOT IN (?)"), eq("pull_request"));
+    verify(connection).execute("COMMENT ON TABLE public.\"" + notCompacted
+        + "\" IS 'compacted'");
+    verify(connection, times(1)).update(startsWith("DELETE"), (Object) any());
+    verify(connection).execute("DROP TABLE public.\"" + expired + "\"");
+    verify(connection, never()).execute("DROP TABLE public.\"" + compacted + "\"");
+  }
+
+  private String partition(int monthsAgo) {
+    return "GitHookData_" + current.minusMonths(monthsAgo)
+        .format(DateTimeFormatter.ofPattern("yyyy_MM"));
+  }
+
+  private ResultSet row(String name, String description) throws Exception {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getString("relname")).thenReturn(name);
+    when(rs.getString("description")).thenReturn(description);
+    return rs;
+  }
+}
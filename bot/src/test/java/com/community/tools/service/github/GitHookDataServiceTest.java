@@ -0,0 +1,75 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHookDataServiceTest {
+
+  private final GitHookDataService gitHookDataService = new GitHookDataService();
+  private final JdbcTemplate connection = mock(JdbcTemplate.class);
+
+  @BeforeEach
+  void init() {
+    ReflectionTestUtils.setField(gitHookDataService, "connection", connection);
+    ReflectionTestUtils.setField(gitHookDataService, "queueCapacity", 10);
+    ReflectionTestUtils.setField(gitHookDataService, "batchSize", 2);
+    ReflectionTestUtils.setField(gitHookDataService, "flushMillis", 50L);
+    ReflectionTestUtils.setField(gitHookDataService, "maxAttempts", 3);
+    ReflectionTestUtils.setField(gitHookDataService, "retryMillis", 1L);
+    gitHookDataService.start();
+  }
+
+  @Test
+  void payloadsAreWrittenInBatches() throws InterruptedException {
+    for (int i = 0; i < 5; i++) {
+      gitHookDataService.saveDataIntoDB("pull_request", "{}".getBytes(StandardCharsets.UTF_8));
+    }
+    gitHookDataService.stop();
+
+    verify(connection, atLeastOnce()).batchUpdate(anyString(), anyList());
+    assertEquals(5, gitHookDataService.getWrittenRows());
+    assertEquals(0, gitHookDataService.getQueueDepth());
+    assertEquals(0, gitHookDataService.getCallerWrites());
+  }
+
+  @Test
+  void failedBatchIsRetried() throws InterruptedException {
+    when(connection.batchUpdate(anyString(), anyList()))
+        .thenThrow(new DataAccessResourceFailureException("down"))
+        .thenReturn(new int[] {1});
+
+    gitHookDataService.saveDataIntoDB("pull_request", "{}".getBytes(StandardCharsets.UTF_8));
+    gitHookDataService.stop();
+
+    verify(connection, times(2)).batchUpdate(anyString(), anyList());
+    assertEquals(1, gitHookDataService.getWrittenRows());
+    assertEquals(1, gitHookDataService.getRetries());
+    assertEquals(0, gitHookDataService.getDroppedRows());
+  }
+
+  @Test
+  void batchIsDroppedAfterLastAttempt() throws InterruptedException {
+    when(connection.batchUpdate(anyString(), anyList()))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    gitHookDataService.saveDataIntoDB("pull_request", "{}".getBytes(StandardCharsets.UTF_8));
+    gitHookDataService.stop();
+
+    verify(connection, times(3)).batchUpdate(anyString(), anyList());
+    assertEquals(0, gitHookDataService.getWrittenRows());
+    assertEquals(1, gitHookDataService.getDroppedRows());
+  }
+}
@@ -0,0 +1,22 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class GitHubConnectServiceTest {
+
+  @Test
+  void nextPageIsTakenFromLinkHeader() {
+    assertEquals("https://api.github.com/repositories/1/issues/comments/1/reactions?page=2",
+        GitHubConnectService.nextPageUrl(
+            "<https://api.github.com/repositories/1/issues/comments/1/reactions?page=2>;"
+                + " rel=\"next\", <https://api.github.com/repositories/1/issues/comments/1"
+                + "/reactions?page=3>; rel=\"last\""));
+    assertNull(GitHubConnectService.nextPageUrl(
+        "<https://api.github.com/repositories/1/issues/comments/1/reactions?page=1>;"
+            + " rel=\"prev\""));
+    assertNull(GitHubConnectService.nextPageUrl(null));
+  }
+}
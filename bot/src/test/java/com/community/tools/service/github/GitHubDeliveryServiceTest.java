@@ -0,0 +1,59 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHubDeliveryServiceTest {
+
+  private final GitHubDeliveryService deliveryService = new GitHubDeliveryService();
+  private final JdbcTemplate connection = mock(JdbcTemplate.class);
+
+  @BeforeEach
+  void init() {
+    ReflectionTestUtils.setField(deliveryService, "connection", connection);
+    ReflectionTestUtils.setField(deliveryService, "cacheSize", 2);
+    deliveryService.initCache();
+  }
+
+  @Test
+  void repeatedDeliveryIsSkippedWithoutDatabase() {
+    when(connection.update(anyString(), eq("a"), any())).thenReturn(1);
+
+    assertTrue(deliveryService.markReceived("a"));
+    assertFalse(deliveryService.markReceived("a"));
+    verify(connection, times(1)).update(anyString(), eq("a"), any());
+  }
+
+  @Test
+  void deliveryEvictedFromCacheIsFoundInTable() {
+    when(connection.update(anyString(), anyString(), any())).thenReturn(1);
+    deliveryService.markReceived("a");
+    deliveryService.markReceived("b");
+    deliveryService.markReceived("c");
+    when(connection.update(anyString(), eq("a"), any())).thenReturn(0);
+
+    assertFalse(deliveryService.markReceived("a"));
+  }
+
+  @Test
+  void forgottenDeliveryIsAcceptedAgain() {
+    when(connection.update(anyString(), eq("a"), any())).thenReturn(1);
+    deliveryService.markReceived("a");
+
+    deliveryService.forget("a");
+
+    assertTrue(deliveryService.markReceived("a"));
+  }
+}
@@ -0,0 +1,88 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.model.GitHubEvent;
+import com.community.tools.model.GitHubHookEvent;
+import com.community.tools.repository.GitHubEventRepository;
+import com.community.tools.service.LeaderboardSnapshotService;
+import com.community.tools.util.statemachine.jpa.StateMachineRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class GitHubEventStoreServiceTest {
+
+  @InjectMocks
+  private GitHubEventStoreService eventStoreService;
+
+  @Mock
+  private GitHubEventRepository eventRepository;
+
+  @Mock
+  private StateMachineRepository stateMachineRepository;
+
+  @Mock
+  private LeaderboardSnapshotService leaderboardSnapshotService;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  void saveHookEventKeepsCommentsWithSameTime() {
+    eventStoreService.saveHookEvent(reviewComment(1, "roman"));
+    eventStoreService.saveHookEvent(reviewComment(2, "Ilona"));
+
+    ArgumentCaptor<GitHubEvent> captor = ArgumentCaptor.forClass(GitHubEvent.class);
+    verify(eventRepository, times(2)).save(captor.capture());
+    List<GitHubEvent> events = captor.getAllValues();
+    assertEquals("comment:1", events.get(0).getEventKey());
+    assertEquals("comment:2", events.get(1).getEventKey());
+    assertEquals(events.get(0).getCreatedAt(), events.get(1).getCreatedAt());
+  }
+
+  @Test
+  void openedPullRequestMovesLastActivity() {
+    when(stateMachineRepository.updateLastActivityAt(eq("roman"), any(Date.class)))
+        .thenReturn(1);
+
+    eventStoreService.saveHookEvent(hookEvent("pull_request", new JSONObject()
+        .put("action", "opened")
+        .put("pull_request", new JSONObject()
+            .put("number", 1)
+            .put("title", "gc")
+            .put("created_at", "2021-05-10T10:00:00Z")
+            .put("user", new JSONObject().put("login", "roman")))));
+
+    verify(leaderboardSnapshotService).markChanged();
+  }
+
+  private GitHubHookEvent reviewComment(long id, String login) {
+    return hookEvent("pull_request_review_comment", new JSONObject()
+        .put("action", "created")
+        .put("pull_request", new JSONObject().put("number", 1))
+        .put("comment", new JSONObject()
+            .put("id", id)
+            .put("created_at", "2021-05-10T10:00:00Z")
+            .put("user", new JSONObject().put("login", login))));
+  }
+
+  private GitHubHookEvent hookEvent(String type, JSONObject json) {
+    return new GitHubHookEventParser().parse(type,
+        json.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
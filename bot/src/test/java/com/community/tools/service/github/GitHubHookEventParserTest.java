@@ -0,0 +1,77 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.community.tools.model.GitHubHookEvent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class GitHubHookEventParserTest {
+
+  private final GitHubHookEventParser parser = new GitHubHookEventParser();
+
+  @Test
+  void parsePullRequestEvent() {
+    String body = "{\"action\":\"labeled\",\"number\":7,"
+        + "\"pull_request\":{\"url\":\"u\",\"number\":7,\"title\":\"gc\","
+        + "\"user\":{\"login\":\"trainee\",\"id\":1},"
+        + "\"head\":{\"repo\":{\"owner\":{\"login\":\"other\"}}},"
+        + "\"labels\":[{\"id\":1,\"name\":\"ready for review\"},{\"name\":\"done\"}],"
+        + "\"created_at\":\"2021-05-10T10:00:00Z\",\"closed_at\":null,"
+        + "\"_links\":{\"self\":{\"href\":\"api\"},\"html\":{\"href\":\"html\"}}},"
+        + "\"label\":{\"name\":\"done\"},"
+        + "\"repository\":{\"full_name\":\"Broscorp-net/traineeship\","
+        + "\"owner\":{\"login\":\"Broscorp-net\"}},"
+        + "\"sender\":{\"login\":\"mentor\"}}";
+
+    GitHubHookEvent event = parser.parse("pull_request", body.getBytes(StandardCharsets.UTF_8));
+
+    assertEquals("pull_request", event.getType());
+    assertEquals("labeled", event.getAction());
+    assertEquals("Broscorp-net/traineeship", event.getRepository());
+    assertEquals("mentor", event.getSenderLogin());
+    assertEquals(Integer.valueOf(7), event.getPullNumber());
+    assertEquals("trainee", event.getPullAuthor());
+    assertEquals("gc", event.getPullTitle());
+    assertEquals("html", event.getPullUrl());
+    assertEquals("2021-05-10T10:00:00Z", event.getPullCreatedAt());
+    assertNull(event.getPullClosedAt());
+    assertEquals(Arrays.asList("ready for review", "done"), event.getLabels());
+    assertEquals("done", event.getLabelName());
+  }
+
+  @Test
+  void parseIssueCommentEvent() {
+    String body = "{\"action\":\"created\","
+        + "\"issue\":{\"number\":7,\"user\":{\"login\":\"trainee\"},"
+        + "\"pull_request\":{\"url\":\"u\"},\"labels\":[]},"
+        + "\"comment\":{\"id\":42,\"user\":{\"login\":\"mentor\"},\"body\":\"approved\","
+        + "\"created_at\":\"2021-05-10T10:00:00Z\"}}";
+
+    GitHubHookEvent event = parser.parse("issue_comment", body.getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(Integer.valueOf(7), event.getPullNumber());
+    assertEquals("trainee", event.getPullAuthor());
+    assertEquals(Long.valueOf(42), event.getCommentId());
+    assertEquals("mentor", event.getCommentAuthor());
+    assertEquals("approved", event.getCommentBody());
+  }
+
+  @Test
+  void parseCheckRunEvent() {
+    String body = "{\"action\":\"completed\",\"check_run\":{\"conclusion\":\"failure\","
+        + "\"html_url\":\"url\",\"check_suite\":{\"head_branch\":\"gc\"},"
+        + "\"pull_requests\":[{\"number\":7,\"head\":{\"ref\":\"gc\"}}]},"
+        + "\"sender\":{\"login\":\"trainee\"}}";
+
+    GitHubHookEvent event = parser.parse("check_run", body.getBytes(StandardCharsets.UTF_8));
+
+    assertEquals("failure", event.getCheckRunConclusion());
+    assertEquals("url", event.getCheckRunUrl());
+    assertEquals("gc", event.getCheckRunBranch());
+    assertEquals(Integer.valueOf(7), event.getPullNumber());
+    assertEquals("trainee", event.getSenderLogin());
+  }
+}
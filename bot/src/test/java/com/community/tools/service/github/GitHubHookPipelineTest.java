@@ -0,0 +1,93 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.community.tools.model.GitHubHookEvent;
+import java.nio.charset.StandardCharsets;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHubHookPipelineTest {
+
+  @InjectMocks
+  private GitHubHookPipeline pipeline;
+
+  @Mock
+  private GitHubHookService gitHubHookService;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(pipeline, "partitions", 4);
+    ReflectionTestUtils.setField(pipeline, "queueCapacity", 100);
+    ReflectionTestUtils.setField(pipeline, "enqueueTimeoutMillis", 100L);
+    pipeline.start();
+  }
+
+  @Test
+  void eventsOfPullRequestAreHandledInOrder() throws InterruptedException {
+    GitHubHookEvent opened = pullRequestEvent("opened", 7);
+    GitHubHookEvent labeled = pullRequestEvent("labeled", 7);
+    GitHubHookEvent closed = pullRequestEvent("closed", 7);
+
+    assertTrue(pipeline.submit(opened));
+    assertTrue(pipeline.submit(labeled));
+    assertTrue(pipeline.submit(closed));
+    pipeline.stop();
+
+    InOrder inOrder = inOrder(gitHubHookService);
+    inOrder.verify(gitHubHookService).doActionsAfterReceiveHook(opened);
+    inOrder.verify(gitHubHookService).doActionsAfterReceiveHook(labeled);
+    inOrder.verify(gitHubHookService).doActionsAfterReceiveHook(closed);
+  }
+
+  @Test
+  void partitionKeyUsesPullRequestOfEvent() throws InterruptedException {
+    GitHubHookEvent comment = hookEvent("issue_comment", new JSONObject()
+        .put("repository", new JSONObject().put("full_name", "Broscorp-net/traineeship"))
+        .put("issue", new JSONObject().put("number", 7)));
+    GitHubHookEvent checkRun = hookEvent("check_run", new JSONObject()
+        .put("repository", new JSONObject().put("full_name", "Broscorp-net/traineeship"))
+        .put("check_run", new JSONObject().put("pull_requests",
+            new JSONArray().put(new JSONObject().put("number", 7)))));
+
+    assertEquals("Broscorp-net/traineeship#7",
+        GitHubHookPipeline.partitionKey(pullRequestEvent("opened", 7)));
+    assertEquals("Broscorp-net/traineeship#7", GitHubHookPipeline.partitionKey(comment));
+    assertEquals("Broscorp-net/traineeship#7", GitHubHookPipeline.partitionKey(checkRun));
+    pipeline.stop();
+  }
+
+  @Test
+  void eventAfterStopIsNotQueued() throws InterruptedException {
+    pipeline.stop();
+
+    assertFalse(pipeline.submit(pullRequestEvent("opened", 7)));
+    verify(gitHubHookService, never()).doActionsAfterReceiveHook(any());
+  }
+
+  private GitHubHookEvent pullRequestEvent(String action, int number) {
+    return hookEvent("pull_request", new JSONObject()
+        .put("action", action)
+        .put("repository", new JSONObject().put("full_name", "Broscorp-net/traineeship"))
+        .put("pull_request", new JSONObject().put("number", number)));
+  }
+
+  private GitHubHookEvent hookEvent(String type, JSONObject json) {
+    return new GitHubHookEventParser().parse(type,
+        json.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
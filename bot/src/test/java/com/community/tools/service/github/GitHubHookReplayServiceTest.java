@@ -0,0 +1,28 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHubHookReplayServiceTest {
+
+  private final GitHubHookReplayService replayService = new GitHubHookReplayService();
+  private final DataSource dataSource = mock(DataSource.class);
+
+  @Test
+  void handlersWithSideEffectsAreNotReplayed() {
+    ReflectionTestUtils.setField(replayService, "dataSource", dataSource);
+
+    assertThrows(IllegalArgumentException.class, () -> replayService.replay(new Date(0),
+        new Date(), new HashSet<>(Arrays.asList(GitHubHookService.TASK_STATUS,
+            GitHubHookService.POINTS))));
+    verifyNoInteractions(dataSource);
+  }
+}
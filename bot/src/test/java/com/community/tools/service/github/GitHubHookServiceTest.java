@@ -0,0 +1,120 @@
+package com.community.tools.service.github;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.community.tools.model.GitHubHookEvent;
+import com.community.tools.service.MessageConstructor;
+import com.community.tools.service.MessageService;
+import com.community.tools.service.PointsTaskService;
+import com.community.tools.service.StateMachineService;
+import com.community.tools.service.TaskStatusService;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHubHookServiceTest {
+
+  @InjectMocks
+  private GitHubHookService gitHubHookService;
+
+  @Mock
+  private MessageConstructor messageConstructor;
+  @Mock
+  private AddMentorService addMentorService;
+  @Mock
+  private StateMachineService stateMachineService;
+  @Mock
+  private KarmaService karmaService;
+  @Mock
+  private PointsTaskService pointsTaskService;
+  @Mock
+  private MessageService messageService;
+  @Mock
+  private TaskStatusService taskStatusService;
+  @Mock
+  private GitHubEventStoreService eventStoreService;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+    ReflectionTestUtils.setField(gitHubHookService, "labeledStr", "labeled");
+    ReflectionTestUtils.setField(gitHubHookService, "opened", "opened");
+    gitHubHookService.initRoutes();
+  }
+
+  @Test
+  void labeledDoneRoutesToPointsAndKarma() {
+    GitHubHookEvent event = hookEvent("pull_request", new JSONObject()
+        .put("action", "labeled")
+        .put("sender", new JSONObject().put("login", "mentor"))
+        .put("label", new JSONObject().put("name", "done"))
+        .put("pull_request", new JSONObject()
+            .put("number", 7)
+            .put("title", "gc")
+            .put("user", new JSONObject().put("login", "trainee"))
+            .put("labels", new JSONArray().put(new JSONObject().put("name", "done")))));
+
+    gitHubHookService.doActionsAfterReceiveHook(event);
+
+    verify(pointsTaskService).addPointForCompletedTask("mentor", "trainee", "gc", 7);
+    verify(karmaService).changeKarmaBasedOnReaction(7, "trainee");
+    verify(taskStatusService).updateTasksStatus(event);
+    verify(stateMachineService, never()).doAction(any(), any(), any());
+    verify(eventStoreService, never()).saveHookEvent(any());
+  }
+
+  @Test
+  void replayRunsOnlyGivenHandlers() {
+    GitHubHookEvent event = hookEvent("pull_request", new JSONObject()
+        .put("action", "labeled")
+        .put("sender", new JSONObject().put("login", "mentor"))
+        .put("label", new JSONObject().put("name", "done"))
+        .put("pull_request", new JSONObject()
+            .put("number", 7)
+            .put("title", "gc")
+            .put("user", new JSONObject().put("login", "trainee"))));
+
+    gitHubHookService.doActionsAfterReceiveHook(event,
+        Collections.singleton(GitHubHookService.TASK_STATUS));
+
+    verify(taskStatusService).updateTasksStatus(event);
+    verify(pointsTaskService, never()).addPointForCompletedTask(any(), any(), any(), anyInt());
+    verify(karmaService, never()).changeKarmaBasedOnReaction(anyInt(), any());
+  }
+
+  @Test
+  void issueCommentRoutesToMentorAndKarmaLedger() {
+    GitHubHookEvent event = hookEvent("issue_comment", new JSONObject()
+        .put("action", "created")
+        .put("issue", new JSONObject()
+            .put("number", 7)
+            .put("user", new JSONObject().put("login", "trainee")))
+        .put("comment", new JSONObject()
+            .put("id", 1)
+            .put("user", new JSONObject().put("login", "mentor"))));
+
+    gitHubHookService.doActionsAfterReceiveHook(event);
+
+    verify(addMentorService).addMentor("mentor", "trainee");
+    verify(karmaService).recordComment(event);
+    verify(taskStatusService, never()).updateTasksStatus(any());
+    verify(karmaService, never()).changeKarmaBasedOnReaction(anyInt(), any());
+    verify(messageService, never()).sendMessageToConversation(anyString(), anyString());
+  }
+
+  private GitHubHookEvent hookEvent(String type, JSONObject json) {
+    return new GitHubHookEventParser().parse(type,
+        json.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
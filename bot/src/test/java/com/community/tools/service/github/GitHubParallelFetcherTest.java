@@ -0,0 +1,130 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.service.github.GitHubParallelFetcher.Fetch;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.GHException;
+import org.kohsuke.github.GHIOException;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.HttpException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GitHubParallelFetcherTest {
+
+  private final List<Long> pauses = new ArrayList<>();
+  private final GitHubParallelFetcher fetcher = new GitHubParallelFetcher() {
+    @Override
+    void sleep(long millis) {
+      pauses.add(millis);
+    }
+  };
+
+  @BeforeEach
+  void init() {
+    GitHubConnectService service = mock(GitHubConnectService.class);
+    when(service.getGitHubConnection()).thenReturn(mock(GitHub.class));
+    ReflectionTestUtils.setField(fetcher, "executor", (Executor) Runnable::run);
+    ReflectionTestUtils.setField(fetcher, "service", service);
+    ReflectionTestUtils.setField(fetcher, "rateReserve", 100);
+  }
+
+  @AfterEach
+  void clearInterrupt() {
+    Thread.interrupted();
+  }
+
+  @Test
+  void pageErrorIsRetriedUntilSuccess() {
+    AtomicInteger calls = new AtomicInteger();
+    Fetch<String> fetch = () -> {
+      if (calls.incrementAndGet() < 3) {
+        throw new GHException("Failed to retrieve page", new IOException("reset"));
+      }
+      return Collections.singletonList("comment");
+    };
+
+    assertEquals(Arrays.asList("comment", "commit"), fetcher.fetchAll(Arrays.asList(fetch,
+        () -> Collections.singletonList("commit"))));
+    assertEquals(3, calls.get());
+    assertEquals(2, pauses.size());
+  }
+
+  @Test
+  void exhaustedRetriesFailAndSkipOtherFetches() {
+    IOException error = new IOException("reset");
+    AtomicInteger calls = new AtomicInteger();
+    AtomicInteger otherCalls = new AtomicInteger();
+    Fetch<String> failing = () -> {
+      calls.incrementAndGet();
+      throw error;
+    };
+    Fetch<String> other = () -> {
+      otherCalls.incrementAndGet();
+      return Collections.singletonList("commit");
+    };
+
+    RuntimeException e = assertThrows(RuntimeException.class,
+        () -> fetcher.fetchAll(Arrays.asList(failing, other)));
+
+    assertSame(error, e.getCause());
+    assertEquals(3, calls.get());
+    assertEquals(0, otherCalls.get());
+  }
+
+  @Test
+  void interruptedBackoffStopsRetries() {
+    GitHubParallelFetcher realSleep = new GitHubParallelFetcher();
+    ReflectionTestUtils.setField(realSleep, "executor", (Executor) Runnable::run);
+    ReflectionTestUtils.setField(realSleep, "service",
+        ReflectionTestUtils.getField(fetcher, "service"));
+    AtomicInteger calls = new AtomicInteger();
+    Thread.currentThread().interrupt();
+
+    assertThrows(RuntimeException.class, () -> realSleep.fetchAll(Collections.singletonList(
+        () -> {
+          calls.incrementAndGet();
+          throw new IOException("reset");
+        })));
+
+    assertEquals(1, calls.get());
+    assertTrue(Thread.currentThread().isInterrupted());
+  }
+
+  @Test
+  void retryAfterIsHonored() {
+    GHIOException limited = new GHIOException("limited") {
+      @Override
+      public Map<String, List<String>> getResponseHeaderFields() {
+        return Collections.singletonMap("retry-after", Collections.singletonList("7"));
+      }
+    };
+
+    assertEquals(7000, GitHubParallelFetcher.retryAfterMillis(limited));
+    assertEquals(60000, GitHubParallelFetcher.retryAfterMillis(
+        new HttpException("", 429, "Too Many Requests", "https://api.github.com")));
+    assertEquals(60000, GitHubParallelFetcher.retryAfterMillis(new HttpException(
+        "You have exceeded a secondary rate limit", 403, "Forbidden",
+        "https://api.github.com")));
+    assertEquals(-1, GitHubParallelFetcher.retryAfterMillis(
+        new HttpException("Must have admin rights", 403, "Forbidden",
+            "https://api.github.com")));
+    assertFalse(GitHubParallelFetcher.retryAfterMillis(new IOException("reset")) >= 0);
+  }
+}
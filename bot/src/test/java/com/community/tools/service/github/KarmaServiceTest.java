@@ -0,0 +1,117 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.model.ApprovedComment;
+import com.community.tools.model.GitHubHookEvent;
+import com.community.tools.repository.ApprovedCommentRepository;
+import com.community.tools.service.ScoreLedgerService;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class KarmaServiceTest {
+
+  @InjectMocks
+  private KarmaService karmaService;
+
+  @Mock
+  private GitHubConnectService service;
+  @Mock
+  private ScoreLedgerService scoreLedgerService;
+  @Mock
+  private MentorRoster mentorRoster;
+  @Mock
+  private ApprovedCommentRepository approvedCommentRepository;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  void approvedCommentIsRecorded() {
+    karmaService.recordComment(commentEvent("issue_comment", "created", " Approved "));
+
+    ArgumentCaptor<ApprovedComment> comment = ArgumentCaptor.forClass(ApprovedComment.class);
+    verify(approvedCommentRepository).save(comment.capture());
+    assertEquals("reviewer", comment.getValue().getAuthor());
+    assertEquals("issues/comments", comment.getValue().getResourcePath());
+  }
+
+  @Test
+  void commentEditedToOtherTextIsRemoved() {
+    when(approvedCommentRepository.existsById(1L)).thenReturn(true);
+
+    karmaService.recordComment(
+        commentEvent("pull_request_review_comment", "edited", "needs work"));
+
+    verify(approvedCommentRepository, never()).save(any());
+    verify(approvedCommentRepository).deleteById(1L);
+  }
+
+  @Test
+  void reactionsOfAllPagesAreFetchedOnlyForApprovedComments() {
+    when(approvedCommentRepository.findAllByPullNumber(7)).thenReturn(Arrays.asList(
+        new ApprovedComment(1L, 7, "reviewer", new Date(1000), "issues/comments"),
+        new ApprovedComment(2L, 7, "reviewer", new Date(2000), "pulls/comments")));
+    when(mentorRoster.getGitNicks()).thenReturn(Collections.singleton("mentor"));
+    when(service.getRepositoryResourcePages("issues/comments/1/reactions?per_page=100"))
+        .thenReturn(Arrays.asList(
+            "[{\"id\":11,\"content\":\"+1\",\"user\":{\"login\":\"mentor\"}}]",
+            "[{\"id\":12,\"content\":\"+1\",\"user\":{\"login\":\"trainee\"}}]"));
+
+    karmaService.changeKarmaBasedOnReaction(7, "trainee");
+
+    verify(service, times(1)).getRepositoryResourcePages(anyString());
+    verify(scoreLedgerService).addKarma(eq("reviewer"), eq(2), anyString(), eq("reaction:11"));
+    verify(scoreLedgerService).addKarma(eq("reviewer"), eq(1), anyString(), eq("reaction:12"));
+  }
+
+  @Test
+  void approvedCommentsOlderThanLedgerAreRecordedFromGitHub() {
+    when(approvedCommentRepository.findAllByPullNumber(7)).thenReturn(Collections.emptyList());
+    when(mentorRoster.getGitNicks()).thenReturn(Collections.singleton("mentor"));
+    when(service.getRepositoryResourcePages("issues/7/comments?per_page=100"))
+        .thenReturn(Collections.singletonList("[{\"id\":3,\"body\":\"Approved\","
+            + "\"created_at\":\"2020-01-01T10:00:00Z\",\"user\":{\"login\":\"reviewer\"}},"
+            + "{\"id\":4,\"body\":\"fix it\",\"created_at\":\"2020-01-01T10:00:00Z\","
+            + "\"user\":{\"login\":\"other\"}}]"));
+    when(service.getRepositoryResourcePages("pulls/7/comments?per_page=100"))
+        .thenReturn(Collections.singletonList("[]"));
+    when(service.getRepositoryResourcePages("issues/comments/3/reactions?per_page=100"))
+        .thenReturn(Collections.singletonList(
+            "[{\"id\":13,\"content\":\"+1\",\"user\":{\"login\":\"mentor\"}}]"));
+
+    karmaService.changeKarmaBasedOnReaction(7, "trainee");
+
+    verify(approvedCommentRepository).saveAll(Collections.singletonList(
+        new ApprovedComment(3L, 7, "reviewer", new Date(1577872800000L), "issues/comments")));
+    verify(scoreLedgerService).addKarma(eq("reviewer"), eq(2), anyString(), eq("reaction:13"));
+  }
+
+  private GitHubHookEvent commentEvent(String type, String action, String body) {
+    GitHubHookEvent event = new GitHubHookEvent();
+    event.setType(type);
+    event.setAction(action);
+    event.setPullNumber(7);
+    event.setCommentId(1L);
+    event.setCommentAuthor("reviewer");
+    event.setCommentBody(body);
+    event.setCommentCreatedAt("2020-01-01T10:00:00Z");
+    return event;
+  }
+}
@@ -0,0 +1,64 @@
+package com.community.tools.service.github;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.community.tools.model.Mentors;
+import com.community.tools.service.github.jpa.MentorsRepository;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class MentorRosterTest {
+
+  @InjectMocks
+  private MentorRoster mentorRoster;
+
+  @Mock
+  private MentorsRepository mentorsRepository;
+
+  @BeforeEach
+  void initMocks() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  void rosterIsLoadedOnce() {
+    when(mentorsRepository.findAll()).thenReturn(Collections.singletonList(
+        new Mentors("mentor", "U1")));
+
+    assertTrue(mentorRoster.isMentor("mentor"));
+    assertFalse(mentorRoster.isMentor("trainee"));
+    assertEquals(Optional.of("U1"), mentorRoster.findSlackId("mentor"));
+    verify(mentorsRepository, times(1)).findAll();
+  }
+
+  @Test
+  void refreshedMentorIsVisible() {
+    when(mentorsRepository.findAll()).thenReturn(Collections.emptyList(),
+        Arrays.asList(new Mentors("mentor", "U1"), new Mentors("newMentor", "U2")));
+    assertFalse(mentorRoster.isMentor("newMentor"));
+
+    mentorRoster.refresh();
+
+    assertTrue(mentorRoster.isMentor("newMentor"));
+  }
+
+  @Test
+  void mentorWithoutSlackIdHasNoSlackId() {
+    when(mentorsRepository.findAll()).thenReturn(Collections.singletonList(
+        new Mentors("mentor", null)));
+
+    assertTrue(mentorRoster.isMentor("mentor"));
+    assertEquals(Optional.empty(), mentorRoster.findSlackId("mentor"));
+  }
+}
@@ -0,0 +1,52 @@
+package com.community.tools.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class GithubAuthCheckerTest {
+
+  // Example from GitHub documentation on validating webhook deliveries
+  private static final String SECRET = "It's a Secret to Everybody";
+  private static final byte[] PAYLOAD = "Hello, World!".getBytes(StandardCharsets.UTF_8);
+  private static final String SHA256 =
+      "sha256=757107ea0eb2509fc211221cce984b8a37570b6d7586c22c46f4379c8b043e17";
+  private static final String SHA1 = "sha1=01dc10d0c83e72ed246219cdd91669667fe2ca59";
+
+  @Test
+  void checkSignature() throws Exception {
+    GithubAuthChecker checker = new GithubAuthChecker(SECRET);
+
+    assertTrue(checker.checkSignature(SHA256, PAYLOAD));
+    assertTrue(checker.checkSignature(SHA1, PAYLOAD));
+    assertFalse(checker.checkSignature(SHA256.replace('7', '8'), PAYLOAD));
+    assertFalse(checker.checkSignature(SHA256.toUpperCase().replace("SHA", "md"), PAYLOAD));
+    assertFalse(checker.checkSignature(SHA1.substring(0, 44) + "z", PAYLOAD));
+    assertFalse(checker.checkSignature(null, PAYLOAD));
+  }
+
+  @Test
+  void checkSignatureConcurrently() throws Exception {
+    GithubAuthChecker checker = new GithubAuthChecker(SECRET);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Callable<Boolean>> checks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      checks.add(() -> checker.checkSignature(SHA256, PAYLOAD));
+    }
+    try {
+      for (Future<Boolean> result : executor.invokeAll(checks)) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.community.tools.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class TaskNameMatcherTest {
+
+  private final TaskNameMatcher matcher = new TaskNameMatcher(new String[] {"checkstyle",
+      "primitives", "boxing", "gc", "generics", "strings"}, 2);
+
+  @Test
+  void exactTitleMatches() {
+    assertEquals(Optional.of("boxing"), matcher.match("boxing"));
+  }
+
+  @Test
+  void titleWithTyposMatchesClosestTask() {
+    assertEquals(Optional.of("primitives"), matcher.match("primitivs"));
+    assertEquals(Optional.of("strings"), matcher.match("String"));
+  }
+
+  @Test
+  void titleTooFarFromTasksDoesNotMatch() {
+    assertEquals(Optional.empty(), matcher.match("check style task"));
+    assertEquals(Optional.empty(), matcher.match(null));
+  }
+}
@@ -0,0 +1,101 @@
+package com.community.tools.util.statemachine.jpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.community.tools.model.Event;
+import com.community.tools.model.GitHubEvent;
+import com.community.tools.model.User;
+import com.community.tools.repository.GitHubEventRepository;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@TestPropertySource(locations = "/application-test.properties", properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"})
+class StateMachineRepositoryTest {
+
+  @Autowired
+  private StateMachineRepository stateMachineRepository;
+  @Autowired
+  private GitHubEventRepository eventRepository;
+  @Autowired
+  private EntityManager entityManager;
+
+  @Test
+  void lastActivityIsBackfilledFromCreatedPullRequests() {
+    stateMachineRepository.saveAll(Arrays.asList(user("U1", "roman", null),
+        user("U2", "ilona", new Date(9_000_000)), user("U3", "stranger", null)));
+    eventRepository.saveAll(Arrays.asList(
+        new GitHubEvent("pr-created:1", new Date(1_000_000), "roman",
+            Event.PULL_REQUEST_CREATED, 1),
+        new GitHubEvent("pr-created:2", new Date(2_000_000), "roman",
+            Event.PULL_REQUEST_CREATED, 2),
+        new GitHubEvent("comment:1", new Date(3_000_000), "roman", Event.COMMENT, 2),
+        new GitHubEvent("pr-created:3", new Date(4_000_000), "ilona",
+            Event.PULL_REQUEST_CREATED, 3)));
+    entityManager.flush();
+
+    assertEquals(1, stateMachineRepository.backfillLastActivityAt(Event.PULL_REQUEST_CREATED));
+    entityManager.clear();
+
+    assertEquals(2_000_000, lastActivityAt("U1"));
+    assertEquals(9_000_000, lastActivityAt("U2"));
+    assertNull(stateMachineRepository.findByUserID("U3").get().getLastActivityAt());
+  }
+
+  @Test
+  void pagesContinueAfterCursorRowValue() {
+    User first = user("U1", "roman", new Date(9_000_000));
+    first.setCompletedTasks(5);
+    User second = user("U2", "ilona", null);
+    second.setCompletedTasks(3);
+    User third = user("U3", "stranger", new Date(9_000_000));
+    third.setCompletedTasks(3);
+    stateMachineRepository.saveAll(Arrays.asList(first, second, third,
+        user("U4", "newbie", new Date(9_000_000))));
+    entityManager.flush();
+
+    assertEquals(Arrays.asList("U1", "U3"), userIds(
+        stateMachineRepository.findPageByCompletedTasks(Integer.MAX_VALUE, "", 2)));
+    assertEquals(Arrays.asList("U2", "U4"), userIds(
+        stateMachineRepository.findPageByCompletedTasks(3, "U3", 2)));
+    assertEquals(Arrays.asList("U3", "U4"), userIds(
+        stateMachineRepository.findActivePageByCompletedTasks(new Date(1_000_000), 5, "U1",
+            10)));
+  }
+
+  @Test
+  void userIsReadForUpdateByGitName() {
+    stateMachineRepository.save(user("U1", "roman", null));
+    entityManager.flush();
+    entityManager.clear();
+
+    assertEquals("U1", stateMachineRepository.findByGitNameForUpdate("roman").get()
+        .getUserID());
+  }
+
+  private List<String> userIds(List<User> users) {
+    return users.stream().map(User::getUserID).collect(Collectors.toList());
+  }
+
+  private long lastActivityAt(String userId) {
+    return stateMachineRepository.findByUserID(userId).get().getLastActivityAt().getTime();
+  }
+
+  private User user(String userId, String gitName, Date lastActivityAt) {
+    User user = new User();
+    user.setUserID(userId);
+    user.setGitName(gitName);
+    user.setLastActivityAt(lastActivityAt);
+    return user;
+  }
+}
@@ -1,9 +1,7 @@
 import {Component, OnInit} from '@angular/core';
-import {User} from 'src/app/models/user.model';
 import {UsersService} from 'src/app/services/users.service';
-import {TasksService} from 'src/app/services/tasks.service';
 import {ActivatedRoute} from "@angular/router";
-import {UserTaskStatus} from "../../models/user-task-status.model";
+import {TaskStatusMatrix, TaskStatusMatrixUser} from "../../models/task-status-matrix.model";
 
 @Component({
   selector: 'app-task-status',
@@ -13,13 +11,14 @@ import {UserTaskStatus} from "../../models/user-task-status.model";
 export class TaskStatusComponent implements OnInit {
 
   tasks: string[];
-  users: User[];
+  statuses: string[];
+  users: TaskStatusMatrixUser[];
   userLimit: number;
   daysFetch: number;
   sort: string;
 
 
-  constructor(private tasksService: TasksService, private usersService: UsersService, private activatedRoute: ActivatedRoute) {
+  constructor(private usersService: UsersService, private activatedRoute: ActivatedRoute) {
   }
 
   ngOnInit(): void {
@@ -29,33 +28,21 @@ export class TaskStatusComponent implements OnInit {
       this.daysFetch = params.daysFetch;
       this.sort = params.sort;
     });
-    this.getTasks();
-    this.getUsers(this.userLimit, this.daysFetch, this.sort);
+    this.getTaskStatusMatrix(this.userLimit, this.daysFetch, this.sort);
   }
 
-  getTasks(): void {
-    this.tasksService.getRestTasks().subscribe(
-      data => {
-        this.tasks = data;
+  getTaskStatusMatrix(userLimit: number, daysFetch: number, sort: string): void {
+    this.usersService.getTaskStatusMatrix(userLimit, daysFetch, sort).subscribe(
+      (data: TaskStatusMatrix) => {
+        this.tasks = data.tasks;
+        this.statuses = data.statuses;
+        this.users = data.users;
       });
   }
 
-  getUsers(userLimit: number, daysFetch: number, sort: string): void {
-    this.usersService.getRestUsers(userLimit, daysFetch, sort).subscribe(
-      data => {
-        this.users = data;
-      });
-
-  }
-
-  isTaskStatusEquals(element: UserTaskStatus, task: string): boolean {
-    return element.taskName === task ||
-      element.taskName.replace('/', '.') === task;
-  }
-
-  getClass(user: User, task: string): any {
-    const status =
-      user?.taskStatuses?.find(element => this.isTaskStatusEquals(element, task))?.taskStatus;
+  getClass(user: TaskStatusMatrixUser, taskIndex: number): any {
+    const code = user.taskStatuses[taskIndex];
+    const status = code < 0 ? undefined : this.statuses[code];
     return {
       'pull_request': status === 'pull request',
       'done': status === 'done',
@@ -0,0 +1,12 @@
+export class TaskStatusMatrixUser {
+  platformName: string;
+  gitName: string;
+  completedTasks: number;
+  taskStatuses: number[];
+}
+
+export class TaskStatusMatrix {
+  tasks: string[];
+  statuses: string[];
+  users: TaskStatusMatrixUser[];
+}
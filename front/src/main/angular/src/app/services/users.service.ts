@@ -2,6 +2,7 @@ import {HttpClient} from '@angular/common/http';
 import {Injectable} from '@angular/core';
 import {Observable} from 'rxjs';
 import {User} from '../models/user.model';
+import {TaskStatusMatrix} from '../models/task-status-matrix.model';
 import {environment} from 'src/environments/environment';
 
 @Injectable({
@@ -17,11 +18,20 @@ export class UsersService {
   }
 
   getRestUsers(userLimit: number, daysFetch: number, sort: string): Observable<User[]> {
-    this.paramFormedString = "?" +
+    this.paramFormedString = this.formParams(userLimit, daysFetch, sort);
+    return this.http.get<User[]>(this.defaultApi + this.paramFormedString);
+  }
+
+  getTaskStatusMatrix(userLimit: number, daysFetch: number, sort: string): Observable<TaskStatusMatrix> {
+    return this.http.get<TaskStatusMatrix>(this.defaultApi + "/task-status"
+      + this.formParams(userLimit, daysFetch, sort));
+  }
+
+  private formParams(userLimit: number, daysFetch: number, sort: string): string {
+    return "?" +
       (userLimit != undefined ? "userLimit=" + userLimit + "&" : "") +
       (daysFetch != undefined ? "daysFetch=" + daysFetch + "&" : "") +
       (sort != undefined ? "sort=" + sort : "");
-    return this.http.get<User[]>(this.defaultApi + this.paramFormedString);
   }
 
 }
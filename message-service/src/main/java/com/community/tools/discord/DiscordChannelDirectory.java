@@ -0,0 +1,29 @@
+package com.community.tools.discord;
+
+import com.community.tools.service.ChannelDirectory;
+import java.util.HashMap;
+import java.util.Map;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.TextChannel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("discord")
+public class DiscordChannelDirectory extends ChannelDirectory {
+
+  @Lazy
+  @Autowired
+  private JDA jda;
+
+  @Override
+  protected Map<String, String> loadChannels() {
+    Map<String, String> channels = new HashMap<>();
+    for (TextChannel channel : jda.getTextChannels()) {
+      channels.putIfAbsent(channel.getName(), channel.getId());
+    }
+    return channels;
+  }
+}
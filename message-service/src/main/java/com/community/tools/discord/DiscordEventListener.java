@@ -4,6 +4,9 @@ import com.community.tools.model.Message;
 import com.community.tools.service.EventListener;
 import lombok.extern.slf4j.Slf4j;
 import net.dv8tion.jda.api.events.ReadyEvent;
+import net.dv8tion.jda.api.events.channel.text.TextChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.text.TextChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.text.update.TextChannelUpdateNameEvent;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
 import net.dv8tion.jda.api.events.message.priv.PrivateMessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
@@ -19,6 +22,8 @@ public class DiscordEventListener extends ListenerAdapter {
 
   @Autowired
   private EventListener listener;
+  @Autowired
+  private DiscordChannelDirectory channelDirectory;
 
   @Override
   public void onGuildMemberJoin(@NotNull GuildMemberJoinEvent event) {
@@ -37,6 +42,21 @@ public class DiscordEventListener extends ListenerAdapter {
     }
   }
 
+  @Override
+  public void onTextChannelCreate(@NotNull TextChannelCreateEvent event) {
+    channelDirectory.invalidate();
+  }
+
+  @Override
+  public void onTextChannelDelete(@NotNull TextChannelDeleteEvent event) {
+    channelDirectory.invalidate();
+  }
+
+  @Override
+  public void onTextChannelUpdateName(@NotNull TextChannelUpdateNameEvent event) {
+    channelDirectory.invalidate();
+  }
+
   @Override
   public void onReady(@NotNull ReadyEvent event) {
     super.onReady(event);
@@ -13,7 +13,9 @@ import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.entities.User;
 import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,6 +25,7 @@ import org.springframework.stereotype.Service;
 public class DiscordService implements MessageService<MessageEmbed> {
 
   @Autowired private JDA jda;
+  @Autowired private DiscordChannelDirectory channelDirectory;
 
   /**
    * Send private message with messageText to username.
@@ -101,13 +104,15 @@ public class DiscordService implements MessageService<MessageEmbed> {
    */
   @Override
   public String getIdByChannelName(String channelName) {
-    TextChannel channel =
-        jda.getTextChannels().stream()
-            .filter(textChannel -> textChannel.getName().equals(channelName))
-            .findFirst()
-            .get();
-    String channelId = channel.getId();
-    return channelId;
+    return channelDirectory.findIdByName(channelName).get();
+  }
+
+  /**
+   * Load channels before the first announcement.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUpChannels() {
+    channelDirectory.warmUp();
   }
 
   @Override
@@ -0,0 +1,76 @@
+package com.community.tools.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Cache of channel ids by channel name for a messenger. The channels are loaded on warm-up,
+ * reloaded after the TTL and refetched when a name is missing, but not more often than
+ * every 30 seconds, so unknown names do not hit the messenger API on every call.
+ */
+@Slf4j
+public abstract class ChannelDirectory {
+
+  private static final long MIN_RELOAD_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  @Value("${channels.ttl.minutes}")
+  private long ttlMinutes;
+
+  private volatile Map<String, String> idsByName = Collections.emptyMap();
+  private volatile long loadedAt;
+
+  /**
+   * Load all channels of the messenger.
+   *
+   * @return map key channel name, value channel id
+   */
+  protected abstract Map<String, String> loadChannels();
+
+  /**
+   * Get channel id by channel name.
+   *
+   * @param channelName name of channel
+   * @return id of channel
+   */
+  public Optional<String> findIdByName(String channelName) {
+    long ttl = TimeUnit.MINUTES.toMillis(ttlMinutes);
+    if (System.currentTimeMillis() - loadedAt > ttl) {
+      reloadIfOlderThan(ttl);
+    }
+    String id = idsByName.get(channelName);
+    if (id == null) {
+      reloadIfOlderThan(MIN_RELOAD_INTERVAL_MILLIS);
+      id = idsByName.get(channelName);
+    }
+    return Optional.ofNullable(id);
+  }
+
+  /**
+   * Load channels ahead of the first lookup. Failures are logged, the lookup will load the
+   * channels again.
+   */
+  public void warmUp() {
+    try {
+      reloadIfOlderThan(0);
+    } catch (RuntimeException e) {
+      log.warn("Failed to warm up channel directory", e);
+    }
+  }
+
+  public void invalidate() {
+    loadedAt = 0;
+  }
+
+  private synchronized void reloadIfOlderThan(long age) {
+    if (System.currentTimeMillis() - loadedAt <= age) {
+      return;
+    }
+    idsByName = Collections.unmodifiableMap(loadChannels());
+    loadedAt = System.currentTimeMillis();
+    log.info("Loaded {} channels", idsByName.size());
+  }
+}
@@ -0,0 +1,48 @@
+package com.community.tools.slack;
+
+import com.community.tools.service.ChannelDirectory;
+import com.github.seratch.jslack.Slack;
+import com.github.seratch.jslack.api.methods.SlackApiException;
+import com.github.seratch.jslack.api.methods.request.conversations.ConversationsListRequest;
+import com.github.seratch.jslack.api.methods.response.conversations.ConversationsListResponse;
+import com.github.seratch.jslack.api.model.Conversation;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("slack")
+public class SlackChannelDirectory extends ChannelDirectory {
+
+  private static final int PAGE_SIZE = 200;
+
+  @Value("${slack.token}")
+  private String token;
+
+  @Override
+  protected Map<String, String> loadChannels() {
+    Map<String, String> channels = new HashMap<>();
+    String cursor = null;
+    try {
+      do {
+        ConversationsListResponse response = Slack.getInstance().methods().conversationsList(
+            ConversationsListRequest.builder().token(token).limit(PAGE_SIZE).cursor(cursor)
+                .build());
+        if (!response.isOk()) {
+          throw new RuntimeException("Slack conversations.list failed: " + response.getError());
+        }
+        for (Conversation channel : response.getChannels()) {
+          channels.putIfAbsent(channel.getName(), channel.getId());
+        }
+        cursor = response.getResponseMetadata() == null
+            ? null : response.getResponseMetadata().getNextCursor();
+      } while (cursor != null && !cursor.isEmpty());
+    } catch (IOException | SlackApiException e) {
+      throw new RuntimeException(e);
+    }
+    return channels;
+  }
+}
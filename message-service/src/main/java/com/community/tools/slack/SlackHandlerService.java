@@ -5,10 +5,18 @@ import com.community.tools.service.EventListener;
 
 import com.github.seratch.jslack.api.model.event.MessageEvent;
 import com.github.seratch.jslack.app_backend.events.EventsDispatcher;
+import com.github.seratch.jslack.app_backend.events.handler.ChannelCreatedHandler;
+import com.github.seratch.jslack.app_backend.events.handler.ChannelDeletedHandler;
+import com.github.seratch.jslack.app_backend.events.handler.ChannelRenameHandler;
 import com.github.seratch.jslack.app_backend.events.handler.MessageHandler;
 import com.github.seratch.jslack.app_backend.events.handler.TeamJoinHandler;
+import com.github.seratch.jslack.app_backend.events.handler.UserChangeHandler;
+import com.github.seratch.jslack.app_backend.events.payload.ChannelCreatedPayload;
+import com.github.seratch.jslack.app_backend.events.payload.ChannelDeletedPayload;
+import com.github.seratch.jslack.app_backend.events.payload.ChannelRenamePayload;
 import com.github.seratch.jslack.app_backend.events.payload.MessagePayload;
 import com.github.seratch.jslack.app_backend.events.payload.TeamJoinPayload;
+import com.github.seratch.jslack.app_backend.events.payload.UserChangePayload;
 import com.github.seratch.jslack.app_backend.events.servlet.SlackEventsApiServlet;
 
 import java.io.IOException;
@@ -34,15 +42,48 @@ public class SlackHandlerService {
 
   @Autowired
   private EventListener listener;
+  @Autowired
+  private SlackUserDirectory userDirectory;
+  @Autowired
+  private SlackChannelDirectory channelDirectory;
 
   private TeamJoinHandler teamJoinHandler = new TeamJoinHandler() {
     @Override
     public void handle(TeamJoinPayload teamJoinPayload) {
+      userDirectory.put(teamJoinPayload.getEvent().getUser());
       String userId = teamJoinPayload.getEvent().getUser().getId();
       listener.memberJoin(new Message(userId, ""));
     }
   };
 
+  private UserChangeHandler userChangeHandler = new UserChangeHandler() {
+    @Override
+    public void handle(UserChangePayload userChangePayload) {
+      userDirectory.put(userChangePayload.getEvent().getUser());
+    }
+  };
+
+  private ChannelCreatedHandler channelCreatedHandler = new ChannelCreatedHandler() {
+    @Override
+    public void handle(ChannelCreatedPayload channelCreatedPayload) {
+      channelDirectory.invalidate();
+    }
+  };
+
+  private ChannelRenameHandler channelRenameHandler = new ChannelRenameHandler() {
+    @Override
+    public void handle(ChannelRenamePayload channelRenamePayload) {
+      channelDirectory.invalidate();
+    }
+  };
+
+  private ChannelDeletedHandler channelDeletedHandler = new ChannelDeletedHandler() {
+    @Override
+    public void handle(ChannelDeletedPayload channelDeletedPayload) {
+      channelDirectory.invalidate();
+    }
+  };
+
   private MessageHandler messageHandler = new MessageHandler() {
     @Override
     public void handle(MessagePayload teamJoinPayload) {
@@ -70,6 +111,10 @@ public class SlackHandlerService {
         dispatcher.register(teamJoinHandler);
       }
       dispatcher.register(messageHandler);
+      dispatcher.register(userChangeHandler);
+      dispatcher.register(channelCreatedHandler);
+      dispatcher.register(channelRenameHandler);
+      dispatcher.register(channelDeletedHandler);
     }
   }
 
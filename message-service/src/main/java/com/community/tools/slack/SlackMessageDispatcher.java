@@ -0,0 +1,278 @@
+package com.community.tools.slack;
+
+import com.github.seratch.jslack.Slack;
+import com.github.seratch.jslack.api.methods.SlackApiException;
+import com.github.seratch.jslack.api.methods.request.chat.ChatPostMessageRequest;
+import com.github.seratch.jslack.api.methods.response.chat.ChatPostMessageResponse;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbound queue for Slack messages. Callers return immediately, messages are posted by
+ * worker threads in the order they were queued for each channel. Posting is paced by a token
+ * bucket per channel and per API method, 429 responses are retried after Retry-After with
+ * jitter, and text messages queued for the same channel within the coalesce window are
+ * posted as one message.
+ */
+@Slf4j
+@Component
+@Profile("slack")
+public class SlackMessageDispatcher {
+
+  private static final String POST_MESSAGE = "chat.postMessage";
+  private static final int MAX_ATTEMPTS = 5;
+  private static final long BASE_BACKOFF_MILLIS = 1000;
+
+  @Value("${slack.token}")
+  private String token;
+  @Value("${slack.dispatch.threads}")
+  private int threads;
+  @Value("${slack.dispatch.coalesce.millis}")
+  private long coalesceMillis;
+  @Value("${slack.dispatch.channel.per.second}")
+  private int channelPerSecond;
+  @Value("${slack.dispatch.method.per.minute}")
+  private int methodPerMinute;
+
+  private final Map<String, ChannelQueue> queues = new ConcurrentHashMap<>();
+  private final Map<String, TokenBucket> methodBuckets = new ConcurrentHashMap<>();
+  private ScheduledExecutorService executor;
+
+  @PostConstruct
+  public void start() {
+    executor = Executors.newScheduledThreadPool(threads,
+        new CustomizableThreadFactory("slack-dispatch-"));
+  }
+
+  /**
+   * Post messages, which are already queued, and stop the workers.
+   *
+   * @throws InterruptedException InterruptedException
+   */
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  public void postText(String channel, String text) {
+    enqueue(new OutboundMessage(channel, text, null, null));
+  }
+
+  public void postBlocks(String channel, String blocks) {
+    enqueue(new OutboundMessage(channel, null, blocks, null));
+  }
+
+  public void postAttachments(String channel, String attachments) {
+    enqueue(new OutboundMessage(channel, null, null, attachments));
+  }
+
+  private void enqueue(OutboundMessage message) {
+    ChannelQueue queue = queues.computeIfAbsent(message.channel, channel -> new ChannelQueue());
+    synchronized (queue) {
+      OutboundMessage last = queue.pending.peekLast();
+      if (last != null && last.canCoalesce(message, coalesceMillis)) {
+        last.text.append('\n').append(message.text);
+        return;
+      }
+      queue.pending.addLast(message);
+      if (queue.scheduled) {
+        return;
+      }
+      queue.scheduled = true;
+    }
+    schedule(queue, coalesceMillis);
+  }
+
+  /**
+   * Post the first message of the channel queue and schedule the next drain. When the drain
+   * fails, the rest of the queue is drained after a backoff, so the channel does not stay
+   * scheduled without a drain.
+   *
+   * @param queue queue of the channel
+   */
+  private void drain(ChannelQueue queue) {
+    boolean settled = false;
+    try {
+      OutboundMessage message;
+      synchronized (queue) {
+        message = queue.pending.pollFirst();
+        if (message == null) {
+          queue.scheduled = false;
+          settled = true;
+          return;
+        }
+      }
+      long delay = reserve(queue.bucket);
+      if (delay == 0) {
+        delay = send(message);
+      }
+      if (delay > 0) {
+        synchronized (queue) {
+          queue.pending.addFirst(message);
+        }
+      }
+      schedule(queue, delay);
+      settled = true;
+    } finally {
+      if (!settled) {
+        schedule(queue, BASE_BACKOFF_MILLIS);
+      }
+    }
+  }
+
+  /**
+   * Schedule a drain of the channel queue. When the dispatcher is stopped, the queue is no
+   * longer scheduled.
+   *
+   * @param queue queue of the channel
+   * @param delay milliseconds to wait before the drain
+   */
+  private void schedule(ChannelQueue queue, long delay) {
+    try {
+      if (delay > 0) {
+        executor.schedule(() -> drain(queue), delay, TimeUnit.MILLISECONDS);
+      } else {
+        executor.execute(() -> drain(queue));
+      }
+    } catch (RejectedExecutionException e) {
+      synchronized (queue) {
+        queue.scheduled = false;
+        log.warn("Slack dispatcher is stopped, {} messages are not posted",
+            queue.pending.size());
+      }
+    }
+  }
+
+  /**
+   * Take a token from the channel and the method buckets, when both have one.
+   *
+   * @param channelBucket bucket of the channel
+   * @return milliseconds to wait before the next try, 0 if the tokens were taken
+   */
+  private long reserve(TokenBucket channelBucket) {
+    TokenBucket methodBucket = methodBuckets.computeIfAbsent(POST_MESSAGE,
+        method -> new TokenBucket(methodPerMinute, TimeUnit.MINUTES.toMillis(1)));
+    synchronized (methodBucket) {
+      synchronized (channelBucket) {
+        long wait = Math.max(channelBucket.millisUntilAvailable(),
+            methodBucket.millisUntilAvailable());
+        if (wait == 0) {
+          channelBucket.take();
+          methodBucket.take();
+        }
+        return wait;
+      }
+    }
+  }
+
+  /**
+   * Post the message to Slack.
+   *
+   * @param message message
+   * @return milliseconds to wait before the retry, 0 if the message is done with
+   */
+  private long send(OutboundMessage message) {
+    message.attempts++;
+    try {
+      ChatPostMessageResponse response = post(message.toRequest(token));
+      if (!response.isOk()) {
+        log.warn("Slack {} to {} failed: {}", POST_MESSAGE, message.channel, response.getError());
+      }
+      return 0;
+    } catch (SlackApiException e) {
+      if (e.getResponse().code() == 429 && message.attempts < MAX_ATTEMPTS) {
+        long retryAfter = retryAfterMillis(e);
+        log.info("Slack {} to {} is rate limited, retry in {} ms",
+            POST_MESSAGE, message.channel, retryAfter);
+        return retryAfter + jitter();
+      }
+      log.error("Slack {} to {} failed", POST_MESSAGE, message.channel, e);
+      return 0;
+    } catch (IOException e) {
+      if (message.attempts < MAX_ATTEMPTS) {
+        return (BASE_BACKOFF_MILLIS << (message.attempts - 1)) + jitter();
+      }
+      log.error("Slack {} to {} failed", POST_MESSAGE, message.channel, e);
+      return 0;
+    } catch (RuntimeException e) {
+      log.error("Slack {} to {} failed, the message is dropped", POST_MESSAGE,
+          message.channel, e);
+      return 0;
+    }
+  }
+
+  ChatPostMessageResponse post(ChatPostMessageRequest request)
+      throws IOException, SlackApiException {
+    return Slack.getInstance().methods().chatPostMessage(request);
+  }
+
+  private long retryAfterMillis(SlackApiException e) {
+    String retryAfter = e.getResponse().header("Retry-After");
+    try {
+      return TimeUnit.SECONDS.toMillis(retryAfter == null ? 1 : Long.parseLong(retryAfter));
+    } catch (NumberFormatException ex) {
+      return BASE_BACKOFF_MILLIS;
+    }
+  }
+
+  private long jitter() {
+    return ThreadLocalRandom.current().nextLong(BASE_BACKOFF_MILLIS / 2);
+  }
+
+  private class ChannelQueue {
+
+    private final Deque<OutboundMessage> pending = new ArrayDeque<>();
+    private final TokenBucket bucket = new TokenBucket(channelPerSecond,
+        TimeUnit.SECONDS.toMillis(1));
+    private boolean scheduled;
+  }
+
+  private static class OutboundMessage {
+
+    private final String channel;
+    private final StringBuilder text;
+    private final String blocks;
+    private final String attachments;
+    private final long queuedAt = System.currentTimeMillis();
+    private int attempts;
+
+    private OutboundMessage(String channel, String text, String blocks, String attachments) {
+      this.channel = channel;
+      this.text = text == null ? null : new StringBuilder(text);
+      this.blocks = blocks;
+      this.attachments = attachments;
+    }
+
+    private boolean canCoalesce(OutboundMessage next, long windowMillis) {
+      return attempts == 0 && text != null && next.text != null
+          && next.queuedAt - queuedAt <= windowMillis;
+    }
+
+    private ChatPostMessageRequest toRequest(String token) {
+      return ChatPostMessageRequest.builder()
+          .token(token)
+          .channel(channel)
+          .asUser(true)
+          .text(text == null ? null : text.toString())
+          .blocksAsString(blocks)
+          .attachmentsAsString(attachments)
+          .build();
+    }
+  }
+}
@@ -4,10 +4,6 @@ import com.community.tools.model.ServiceUser;
 import com.community.tools.service.MessageService;
 import com.github.seratch.jslack.Slack;
 import com.github.seratch.jslack.api.methods.SlackApiException;
-import com.github.seratch.jslack.api.methods.request.users.UsersListRequest;
-import com.github.seratch.jslack.api.methods.response.chat.ChatPostMessageResponse;
-import com.github.seratch.jslack.api.model.Conversation;
-import com.github.seratch.jslack.api.model.User;
 import com.github.seratch.jslack.api.webhook.Payload;
 
 import java.io.IOException;
@@ -16,8 +12,11 @@ import java.util.Set;
 
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -31,6 +30,15 @@ public class SlackService implements MessageService<String> {
   @Value("${slack.webhook}")
   private String slackWebHook;
 
+  @Autowired
+  private SlackUserDirectory userDirectory;
+
+  @Autowired
+  private SlackChannelDirectory channelDirectory;
+
+  @Autowired
+  private SlackMessageDispatcher dispatcher;
+
   /**
    * Send private message with messageText to username.
    *
@@ -41,15 +49,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public void sendPrivateMessage(String username, String messageText) {
-    Slack slack = Slack.getInstance();
-    try {
-      slack
-          .methods(token)
-          .chatPostMessage(
-            req -> req.channel(getIdByUsername(username)).asUser(true).text(messageText));
-    } catch (IOException | SlackApiException exception) {
-      throw new RuntimeException(exception);
-    }
+    dispatcher.postText(getIdByUsername(username), messageText);
   }
 
   /**
@@ -62,15 +62,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public void sendBlocksMessage(String username, String message) {
-    Slack slack = Slack.getInstance();
-    try {
-      slack
-          .methods(token)
-          .chatPostMessage(req ->
-            req.channel(getIdByUsername(username)).asUser(true).blocksAsString(message));
-    } catch (IOException | SlackApiException exception) {
-      throw new RuntimeException(exception);
-    }
+    dispatcher.postBlocks(getIdByUsername(username), message);
   }
 
   /**
@@ -83,19 +75,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public void sendAttachmentsMessage(String username, String message) {
-    Slack slack = Slack.getInstance();
-    try {
-      ChatPostMessageResponse postResponse =
-          slack
-              .methods(token)
-              .chatPostMessage(
-                  req ->
-                      req.channel(getIdByUsername(username))
-                          .asUser(true)
-                          .attachmentsAsString(message));
-    } catch (IOException | SlackApiException exception) {
-      throw new RuntimeException(exception);
-    }
+    dispatcher.postAttachments(getIdByUsername(username), message);
   }
 
   /**
@@ -108,17 +88,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public void sendMessageToConversation(String channelName, String messageText) {
-    Slack slack = Slack.getInstance();
-    try {
-      ChatPostMessageResponse postResponse =
-          slack
-              .methods(token)
-              .chatPostMessage(
-                  req ->
-                      req.channel(getIdByChannelName(channelName)).asUser(true).text(messageText));
-    } catch (IOException | SlackApiException exception) {
-      throw new RuntimeException(exception);
-    }
+    dispatcher.postText(getIdByChannelName(channelName), messageText);
   }
 
   /**
@@ -131,19 +101,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public void sendBlockMessageToConversation(String channelName, String message) {
-    Slack slack = Slack.getInstance();
-    try {
-      ChatPostMessageResponse postResponse =
-          slack
-              .methods(token)
-              .chatPostMessage(
-                  req ->
-                      req.channel(getIdByChannelName(channelName))
-                          .asUser(true)
-                          .blocksAsString(message));
-    } catch (IOException | SlackApiException exception) {
-      throw new RuntimeException(exception);
-    }
+    dispatcher.postBlocks(getIdByChannelName(channelName), message);
   }
 
   /**
@@ -154,18 +112,15 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public String getIdByChannelName(String channelName) {
-    Slack slack = Slack.getInstance();
-    try {
-      Conversation channel =
-          slack.methods(token).conversationsList(req -> req).getChannels().stream()
-              .filter(u -> u.getName().equals(channelName))
-              .findFirst()
-              .get();
+    return channelDirectory.findIdByName(channelName).get();
+  }
 
-      return channel.getId();
-    } catch (IOException | SlackApiException e) {
-      throw new RuntimeException(e);
-    }
+  /**
+   * Load channels before the first announcement.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUpChannels() {
+    channelDirectory.warmUp();
   }
 
   /**
@@ -176,17 +131,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public String getUserById(String id) {
-    Slack slack = Slack.getInstance();
-    try {
-      User user =
-          slack.methods(token).usersList(req -> req).getMembers().stream()
-              .filter(u -> u.getId().equals(id))
-              .findFirst()
-              .get();
-      return user.getProfile().getDisplayName();
-    } catch (IOException | SlackApiException e) {
-      throw new RuntimeException(e);
-    }
+    return userDirectory.findById(id).get().getProfile().getDisplayName();
   }
 
   /**
@@ -197,17 +142,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public String getIdByUser(String id) {
-    Slack slack = Slack.getInstance();
-    try {
-      User user =
-          slack.methods(token).usersList(req -> req).getMembers().stream()
-              .filter(u -> u.getRealName().equals(id))
-              .findFirst()
-              .get();
-      return user.getId();
-    } catch (IOException | SlackApiException e) {
-      throw new RuntimeException(e);
-    }
+    return userDirectory.findByRealName(id).get().getId();
   }
 
   /**
@@ -218,17 +153,7 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public String getIdByUsername(String username) {
-    Slack slack = Slack.getInstance();
-    try {
-      User user =
-          slack.methods(token).usersList(req -> req).getMembers().stream()
-              .filter(u -> u.getProfile().getDisplayName().equals(username))
-              .findFirst()
-              .get();
-      return user.getId();
-    } catch (IOException | SlackApiException e) {
-      throw new RuntimeException(e);
-    }
+    return userDirectory.findByDisplayName(username).get().getId();
   }
 
   /**
@@ -238,21 +163,9 @@ public class SlackService implements MessageService<String> {
    */
   @Override
   public Set<ServiceUser> getAllUsers() {
-    try {
-      Slack slack = Slack.getInstance();
-      Set<ServiceUser> users =
-          slack
-              .methods()
-              .usersList(UsersListRequest.builder().token(token).build())
-              .getMembers()
-              .stream()
-              .map(ServiceUser::from)
-              .collect(Collectors.toSet());
-
-      return users;
-    } catch (IOException | SlackApiException e) {
-      throw new RuntimeException(e);
-    }
+    return userDirectory.getAll().stream()
+        .map(ServiceUser::from)
+        .collect(Collectors.toSet());
   }
 
   /**
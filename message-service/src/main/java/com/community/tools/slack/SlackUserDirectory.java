@@ -0,0 +1,142 @@
+package com.community.tools.slack;
+
+import com.github.seratch.jslack.Slack;
+import com.github.seratch.jslack.api.methods.SlackApiException;
+import com.github.seratch.jslack.api.methods.request.users.UsersListRequest;
+import com.github.seratch.jslack.api.methods.response.users.UsersListResponse;
+import com.github.seratch.jslack.api.model.User;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory index of Slack workspace members by id, display name and real name. The index is
+ * loaded lazily, reloaded after the TTL or on a lookup miss, and updated in place from
+ * team_join and user_change events.
+ */
+@Slf4j
+@Component
+@Profile("slack")
+public class SlackUserDirectory {
+
+  private static final int PAGE_SIZE = 200;
+  private static final long MIN_RELOAD_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  @Value("${slack.token}")
+  private String token;
+
+  @Value("${slack.users.ttl.minutes}")
+  private long ttlMinutes;
+
+  private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
+  private volatile long loadedAt;
+
+  public Optional<User> findById(String id) {
+    return find(index -> index.byId.get(id));
+  }
+
+  public Optional<User> findByDisplayName(String displayName) {
+    return find(index -> index.byDisplayName.get(displayName));
+  }
+
+  public Optional<User> findByRealName(String realName) {
+    return find(index -> index.byRealName.get(realName));
+  }
+
+  /**
+   * Get all members of workspace.
+   *
+   * @return members of workspace
+   */
+  public Collection<User> getAll() {
+    return current().byId.values();
+  }
+
+  /**
+   * Add new or changed member to the index.
+   *
+   * @param user Slack user from event
+   */
+  public synchronized void put(User user) {
+    Map<String, User> members = new LinkedHashMap<>(snapshot.byId);
+    members.put(user.getId(), user);
+    snapshot = new Snapshot(members.values());
+  }
+
+  public void invalidate() {
+    loadedAt = 0;
+  }
+
+  private Optional<User> find(Function<Snapshot, User> lookup) {
+    User user = lookup.apply(current());
+    if (user == null) {
+      reloadIfOlderThan(MIN_RELOAD_INTERVAL_MILLIS);
+      user = lookup.apply(snapshot);
+    }
+    return Optional.ofNullable(user);
+  }
+
+  private Snapshot current() {
+    long ttl = TimeUnit.MINUTES.toMillis(ttlMinutes);
+    if (System.currentTimeMillis() - loadedAt > ttl) {
+      reloadIfOlderThan(ttl);
+    }
+    return snapshot;
+  }
+
+  private synchronized void reloadIfOlderThan(long age) {
+    if (System.currentTimeMillis() - loadedAt <= age) {
+      return;
+    }
+    List<User> members = new ArrayList<>();
+    String cursor = null;
+    try {
+      do {
+        UsersListResponse response = Slack.getInstance().methods().usersList(
+            UsersListRequest.builder().token(token).limit(PAGE_SIZE).cursor(cursor).build());
+        if (!response.isOk()) {
+          throw new RuntimeException("Slack users.list failed: " + response.getError());
+        }
+        members.addAll(response.getMembers());
+        cursor = response.getResponseMetadata() == null
+            ? null : response.getResponseMetadata().getNextCursor();
+      } while (cursor != null && !cursor.isEmpty());
+    } catch (IOException | SlackApiException e) {
+      throw new RuntimeException(e);
+    }
+    snapshot = new Snapshot(members);
+    loadedAt = System.currentTimeMillis();
+    log.info("Loaded {} Slack users", members.size());
+  }
+
+  private static final class Snapshot {
+
+    private final Map<String, User> byId = new LinkedHashMap<>();
+    private final Map<String, User> byDisplayName = new HashMap<>();
+    private final Map<String, User> byRealName = new HashMap<>();
+
+    private Snapshot(Collection<User> members) {
+      for (User member : members) {
+        byId.put(member.getId(), member);
+        if (member.getProfile() != null && member.getProfile().getDisplayName() != null) {
+          byDisplayName.putIfAbsent(member.getProfile().getDisplayName(), member);
+        }
+        if (member.getRealName() != null) {
+          byRealName.putIfAbsent(member.getRealName(), member);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.community.tools.slack;
+
+/**
+ * Token bucket, which allows bursts up to the capacity and refills at a constant rate.
+ * Not thread-safe, callers synchronize on the bucket.
+ */
+class TokenBucket {
+
+  private final double capacity;
+  private final double tokensPerMilli;
+  private double tokens;
+  private long refilledAt = System.currentTimeMillis();
+
+  TokenBucket(int capacity, long periodMillis) {
+    this.capacity = capacity;
+    this.tokensPerMilli = (double) capacity / periodMillis;
+    this.tokens = capacity;
+  }
+
+  /**
+   * Get time until one token is available.
+   *
+   * @return milliseconds to wait, 0 if a token is available now
+   */
+  long millisUntilAvailable() {
+    refill();
+    return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerMilli);
+  }
+
+  void take() {
+    refill();
+    tokens -= 1;
+  }
+
+  private void refill() {
+    long now = System.currentTimeMillis();
+    tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerMilli);
+    refilledAt = now;
+  }
+}
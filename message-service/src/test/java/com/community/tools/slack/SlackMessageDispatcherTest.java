@@ -0,0 +1,100 @@
+package com.community.tools.slack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.seratch.jslack.api.methods.request.chat.ChatPostMessageRequest;
+import com.github.seratch.jslack.api.methods.response.chat.ChatPostMessageResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SlackMessageDispatcherTest {
+
+  private final List<String> posted = Collections.synchronizedList(new ArrayList<>());
+  private CountDownLatch latch;
+
+  private final SlackMessageDispatcher dispatcher = new SlackMessageDispatcher() {
+    @Override
+    ChatPostMessageResponse post(ChatPostMessageRequest request) {
+      if ("fail".equals(request.getBlocksAsString())) {
+        throw new IllegalStateException("bad message");
+      }
+      posted.add(request.getChannel() + ":" + request.getBlocksAsString());
+      latch.countDown();
+      ChatPostMessageResponse response = new ChatPostMessageResponse();
+      response.setOk(true);
+      return response;
+    }
+  };
+
+  @BeforeEach
+  void init() {
+    ReflectionTestUtils.setField(dispatcher, "token", "token");
+    ReflectionTestUtils.setField(dispatcher, "threads", 4);
+    ReflectionTestUtils.setField(dispatcher, "coalesceMillis", 10L);
+    ReflectionTestUtils.setField(dispatcher, "channelPerSecond", 1000);
+    ReflectionTestUtils.setField(dispatcher, "methodPerMinute", 100_000);
+    dispatcher.start();
+  }
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    dispatcher.stop();
+  }
+
+  @Test
+  void messagesOfChannelArePostedInOrder() throws InterruptedException {
+    latch = new CountDownLatch(40);
+    for (int i = 0; i < 20; i++) {
+      dispatcher.postBlocks("first", String.valueOf(i));
+      dispatcher.postBlocks("second", String.valueOf(i));
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(expected("first"), postedTo("first"));
+    assertEquals(expected("second"), postedTo("second"));
+  }
+
+  @Test
+  void failedMessageDoesNotStopChannel() throws InterruptedException {
+    latch = new CountDownLatch(2);
+    dispatcher.postBlocks("channel", "fail");
+    dispatcher.postBlocks("channel", "1");
+    dispatcher.postBlocks("channel", "2");
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    latch = new CountDownLatch(1);
+    dispatcher.postBlocks("channel", "3");
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("channel:1", "channel:2", "channel:3"), posted);
+  }
+
+  private List<String> expected(String channel) {
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      expected.add(channel + ":" + i);
+    }
+    return expected;
+  }
+
+  private List<String> postedTo(String channel) {
+    synchronized (posted) {
+      List<String> messages = new ArrayList<>();
+      for (String message : posted) {
+        if (message.startsWith(channel + ":")) {
+          messages.add(message);
+        }
+      }
+      return messages;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.community.tools.slack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  @Test
+  void burstUpToCapacityIsAllowed() {
+    TokenBucket bucket = new TokenBucket(3, 60_000);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, bucket.millisUntilAvailable());
+      bucket.take();
+    }
+
+    long wait = bucket.millisUntilAvailable();
+    assertTrue(wait > 19_000 && wait <= 20_000, "wait " + wait);
+  }
+
+  @Test
+  void tokensAreRefilledWithTime() throws InterruptedException {
+    TokenBucket bucket = new TokenBucket(1, 50);
+    bucket.take();
+
+    assertTrue(bucket.millisUntilAvailable() > 0);
+    Thread.sleep(60);
+    assertEquals(0, bucket.millisUntilAvailable());
+  }
+}